@@ -1,8 +1,10 @@
 package org.example;
 
+import org.example.annotations.Bean;
 import org.example.annotations.Service;
 import org.example.annotations.StartUp;
 import org.example.configs.Configuration;
+import org.example.configs.ScanningConfiguration;
 import org.example.container.*;
 import org.example.directory.Directory;
 import org.example.directory.DirectoryResolver;
@@ -10,11 +12,16 @@ import org.example.directory.DirectoryResolverImpl;
 import org.example.directory.DirectoryType;
 import org.example.instantiations.ServicesInstantiationService;
 import org.example.instantiations.ServicesInstantiationServiceImpl;
+import org.example.util.ObjectInstantiationUtils;
 
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Application starting point.
@@ -25,6 +32,11 @@ import java.util.*;
 @Service
 public class InitApp {
 
+    private static final Logger LOGGER = Logger.getLogger(InitApp.class.getName());
+
+    private static final String SCANNED_DIRECTORY_FORMAT =
+            "Scanned '%s': %d directories, %d class files, %d located classes.";
+
     public static void main(String[] args) {
         DependencyContainerV2 run = run(InitApp.class);
         Collection<ServiceDetails> allServiceDetails = run.getAllServices();
@@ -40,33 +52,90 @@ public class InitApp {
      * Looks for instantiated service from the given type.
      * <p>
      * If instance is found, looks for void method with 0 params
-     * and with with @StartUp annotation and executes it.
+     * and with with @StartUp annotation and executes it once every service is ready.
      *
      * @param startupClass any class from the client side.
      */
-    private static DependencyContainerV2 run(Class<?> startupClass, Configuration configuration) {
-        final DependencyContainerV2 dependencyContainer = run(new File[]{
-                new File(new DirectoryResolverImpl().resolveDirectory(startupClass).getDirectory()),
-        }, configuration);
+    public static DependencyContainerV2 run(Class<?> startupClass, Configuration configuration) {
+        final DirectoryResolver directoryResolver = new DirectoryResolverImpl();
+        final Map<String, Directory> directories = new LinkedHashMap<>();
+
+        final Directory startupDirectory = directoryResolver.resolveDirectory(
+                new File(directoryResolver.resolveDirectory(startupClass).getDirectory())
+        );
+        directories.put(startupDirectory.getDirectory(), startupDirectory);
+
+        if (configuration.scanning().isScanClasspath()) {
+            directoryResolver.resolveClasspath(configuration.scanning().getClassLoader())
+                    .forEach(directory -> directories.putIfAbsent(directory.getDirectory(), directory));
+        }
+
+        final DependencyContainerV2 dependencyContainer = run(directories.values(), configuration);
 
         runStartUpMethod(startupClass, dependencyContainer);
 
         return dependencyContainer;
     }
 
+    /**
+     * Returns once every service is instantiated.
+     * Services with asynchronous post construct methods may not be ready yet,
+     * see {@link DependencyContainerV2#getReadiness()}.
+     */
     public static DependencyContainerV2 run(File[] startupDirectories, Configuration configuration) {
-        final ServicesScanningService scanningService = new ServicesScanningServiceImpl(configuration.scanning());
+        final DirectoryResolver directoryResolver = new DirectoryResolverImpl();
+
+        return run(Arrays.stream(startupDirectories)
+                .map(directoryResolver::resolveDirectory)
+                .collect(Collectors.toList()), configuration);
+    }
+
+    private static DependencyContainerV2 run(Collection<Directory> startupDirectories, Configuration configuration) {
+        final ScanCache scanCache = createScanCache(configuration.scanning());
+        final ServicesScanningServiceImpl scanningService = new ServicesScanningServiceImpl(configuration.scanning(), scanCache);
+        final DependencyResolveService dependencyResolveService = new DependencyResolveServiceImpl(
+                configuration.getInstantiationConfiguration()
+        );
         final ServicesInstantiationService instantiationService = new ServicesInstantiationServiceImpl(
-                new DependencyResolveServiceImpl(configuration.getInstantiationConfiguration())
+                configuration.getInstantiationConfiguration()
         );
 
         final Set<Class<?>> locatedClasses = new HashSet<>();
         final List<ServiceDetails> serviceDetails = new ArrayList<>();
+        final AtomicReference<DependencyGraph> dependencyGraph = new AtomicReference<>();
 
         final Runnable runnable = () -> {
-            locatedClasses.addAll(locateClasses(startupDirectories));
-            final Set<ServiceDetails> mappedServices = new HashSet<>(scanningService.mappingClass(locatedClasses));
-            serviceDetails.addAll(new ArrayList<>(instantiationService.instantiateServicesAndBeans(mappedServices)));
+            final Path startupPlanFile = configuration.general().getStartupPlanFile();
+            long startupPlanChecksum = 0;
+            StartupPlan startupPlan = null;
+            if (startupPlanFile != null) {
+                startupPlanChecksum = StartupPlan.checksum(startupDirectories, createConfigurationSignature(configuration));
+                startupPlan = StartupPlan.load(
+                        startupPlanFile, startupPlanChecksum, scanningService, configuration.getInstantiationConfiguration()
+                );
+            }
+
+            final Set<ServiceDetails> mappedServices;
+            if (startupPlan != null) {
+                locatedClasses.addAll(startupPlan.getLocatedClasses());
+                mappedServices = startupPlan.getMappedServices();
+                dependencyGraph.set(startupPlan.getDependencyGraph());
+            } else {
+                locatedClasses.addAll(locateClasses(startupDirectories, configuration, scanCache));
+                mappedServices = mapServices(locatedClasses, scanningService, scanCache);
+
+                dependencyGraph.set(dependencyResolveService.resolveDependencies(mappedServices));
+                if (startupPlanFile != null) {
+                    StartupPlan.write(
+                            startupPlanFile, startupPlanChecksum, locatedClasses,
+                            mappedServices, dependencyGraph.get(), scanningService
+                    );
+                }
+            }
+
+            serviceDetails.addAll(new ArrayList<>(instantiationService.instantiateServicesAndBeans(
+                    mappedServices, dependencyGraph.get()
+            )));
         };
 
         if (configuration.general().isRunInNewThread()) {
@@ -88,7 +157,7 @@ public class InitApp {
                 Thread.currentThread().setContextClassLoader(oldCl);
             }
         }
-        return new DependencyContainerCached(locatedClasses, serviceDetails);
+        return new DependencyContainerCached(locatedClasses, serviceDetails, dependencyGraph.get());
 
     }
 //        final Set<Class<?>> locatedClass = getLocatedClass(startupClass);
@@ -125,23 +194,151 @@ public class InitApp {
 //        return locatedClasses;
 //    }
 
-    private static Set<Class<?>> locateClasses(File[] startupDirectories) {
-        final Set<Class<?>> locatedClasses = new HashSet<>();
+    /**
+     * Loads the scan cache if one is configured.
+     * The cache is bound to the service and bean annotations (including the default ones),
+     * since they decide which classes are services.
+     *
+     * @return the scan cache or null.
+     */
+    private static ScanCache createScanCache(ScanningConfiguration configuration) {
+        if (configuration.getScanCacheFile() == null) {
+            return null;
+        }
+
+        final Set<String> serviceAnnotations = new TreeSet<>(List.of(Service.class.getName()));
+        configuration.getServiceAnnotations().forEach(annotation -> serviceAnnotations.add(annotation.getName()));
+
+        final Set<String> beanAnnotations = new TreeSet<>(List.of(Bean.class.getName()));
+        configuration.getBeanAnnotations().forEach(annotation -> beanAnnotations.add(annotation.getName()));
+
+        return ScanCache.load(configuration.getScanCacheFile(), serviceAnnotations + ";" + beanAnnotations);
+    }
+
+    /**
+     * Scans and resolves the services of the given directories without instantiating them
+     * and writes the result to the startup plan file of the configuration.
+     * Meant to be run as a build step (see {@link StartupPlanGenerator}).
+     *
+     * @param startupDirectories - directories or jar files of the application.
+     * @param configuration      - the same configuration that the application is started with.
+     */
+    public static void writeStartupPlan(File[] startupDirectories, Configuration configuration) {
         final DirectoryResolver directoryResolver = new DirectoryResolverImpl();
+        final List<Directory> directories = Arrays.stream(startupDirectories)
+                .map(directoryResolver::resolveDirectory)
+                .collect(Collectors.toList());
 
-        for (File startupDirectory : startupDirectories) {
-            final Directory directory = directoryResolver.resolveDirectory(startupDirectory);
+        final ScanCache scanCache = createScanCache(configuration.scanning());
+        final ServicesScanningServiceImpl scanningService = new ServicesScanningServiceImpl(configuration.scanning(), scanCache);
 
-            ClassLocator classLocator = new ClassLocatorForDirectoryImpl();
-            if (directory.getDirectoryType() == DirectoryType.JAR_FILE) {
-                classLocator = new ClassLocatorForJarFile();
-            }
+        final ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(configuration.scanning().getClassLoader());
+
+            final Set<Class<?>> locatedClasses = locateClasses(directories, configuration, scanCache);
+            final Set<ServiceDetails> mappedServices = mapServices(locatedClasses, scanningService, scanCache);
+            final DependencyGraph dependencyGraph = new DependencyResolveServiceImpl(
+                    configuration.getInstantiationConfiguration()
+            ).resolveDependencies(mappedServices);
+
+            StartupPlan.write(
+                    configuration.general().getStartupPlanFile(),
+                    StartupPlan.checksum(directories, createConfigurationSignature(configuration)),
+                    locatedClasses, mappedServices, dependencyGraph, scanningService
+            );
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldCl);
+        }
+    }
+
+    private static Set<ServiceDetails> mapServices(Set<Class<?>> locatedClasses,
+                                                   ServicesScanningService scanningService,
+                                                   ScanCache scanCache) {
+        final Set<ServiceDetails> mappedServices = new HashSet<>(scanningService.mappingClass(locatedClasses));
+        if (scanCache != null) {
+            scanCache.save();
+        }
+
+        return mappedServices;
+    }
+
+    /**
+     * Everything in the configuration that changes the result of scanning and dependency resolution.
+     * Used to invalidate the startup plan.
+     */
+    private static String createConfigurationSignature(Configuration configuration) {
+        final ScanningConfiguration scanning = configuration.scanning();
+
+        final Set<String> serviceAnnotations = new TreeSet<>(List.of(Service.class.getName()));
+        scanning.getServiceAnnotations().forEach(annotation -> serviceAnnotations.add(annotation.getName()));
+
+        final Set<String> beanAnnotations = new TreeSet<>(List.of(Bean.class.getName()));
+        scanning.getBeanAnnotations().forEach(annotation -> beanAnnotations.add(annotation.getName()));
+
+        final Set<String> additionalClasses = new TreeSet<>();
+        scanning.getAdditionalClasses().forEach((cls, annotation) -> additionalClasses.add(cls.getName() + "@" + annotation.getName()));
+
+        final Set<String> providedServices = new TreeSet<>();
+        configuration.getInstantiationConfiguration().getProvidedServices()
+                .forEach(service -> providedServices.add(service.getServiceType().getName() + "@" + service.getInstanceName()));
+
+        final Set<String> dependencyResolvers = new TreeSet<>();
+        configuration.getInstantiationConfiguration().getDependencyResolvers()
+                .forEach(resolver -> dependencyResolvers.add(resolver.getClass().getName()));
 
-            locatedClasses.addAll(classLocator.locatedClass(directory.getDirectory()));
+        return String.join(";",
+                serviceAnnotations.toString(),
+                beanAnnotations.toString(),
+                additionalClasses.toString(),
+                new TreeSet<>(scanning.getIncludedPackages()).toString(),
+                new TreeSet<>(scanning.getExcludedPackages()).toString(),
+                String.valueOf(scanning.isUseServiceIndex()),
+                providedServices.toString(),
+                dependencyResolvers.toString()
+        );
+    }
+
+    /**
+     * Locates the classes of all startup directories.
+     * Each directory has its own {@link ClassLocator} and the directories are scanned in parallel.
+     * Directories with a service index are not scanned, the indexed services are loaded instead.
+     * Classes found in more than one directory are located only once.
+     */
+    private static Set<Class<?>> locateClasses(Collection<Directory> startupDirectories, Configuration configuration, ScanCache scanCache) {
+        return startupDirectories.parallelStream()
+                .flatMap(directory -> locateClasses(directory, configuration.scanning(), scanCache).stream())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Directories without a service index are scanned and their counters are logged.
+     */
+    private static Set<Class<?>> locateClasses(Directory directory, ScanningConfiguration configuration, ScanCache scanCache) {
+        if (configuration.isUseServiceIndex() && ClassLocatorForServiceIndex.isIndexPresent(directory)) {
+            return new ClassLocatorForServiceIndex(configuration, directory.getDirectoryType())
+                    .locatedClass(directory.getDirectory());
         }
 
+        if (directory.getDirectoryType() == DirectoryType.MODULE) {
+            return new ClassLocatorForModule(configuration).locatedClass(directory.getDirectory());
+        }
+
+        if (directory.getDirectoryType() == DirectoryType.JAR_FILE) {
+            return new ClassLocatorForJarFile(configuration, scanCache).locatedClass(directory.getDirectory());
+        }
+
+        final ClassLocatorForDirectoryImpl classLocator = new ClassLocatorForDirectoryImpl(configuration, scanCache);
+        final Set<Class<?>> locatedClasses = classLocator.locatedClass(directory.getDirectory());
+
+        LOGGER.fine(() -> String.format(
+                SCANNED_DIRECTORY_FORMAT, directory.getDirectory(), classLocator.getDirectoriesCount(),
+                classLocator.getClassFilesCount(), classLocator.getLocatedClassesCount()
+        ));
+
         return locatedClasses;
     }
+
     /**
      *
      */
@@ -213,6 +410,8 @@ public class InitApp {
             return;
         }
 
+        ObjectInstantiationUtils.awaitPostConstruct(dependencyContainer.getReadiness());
+
         for (Method declaredMethod : serviceDetails.getServiceType().getDeclaredMethods()) {
             if ((declaredMethod.getReturnType() != void.class &&
                     declaredMethod.getReturnType() != Void.class)
@@ -221,6 +420,7 @@ public class InitApp {
             }
 
             declaredMethod.setAccessible(true);
+            serviceDetails.ensureInstantiated();
             final Object[] params = Arrays.stream(declaredMethod.getParameterTypes())
                     .map(dependencyContainer::getService)
                     .toArray(Object[]::new);
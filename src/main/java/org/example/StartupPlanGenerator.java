@@ -0,0 +1,75 @@
+package org.example;
+
+import org.example.configs.Configuration;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Command line entry point that writes the startup plan of an application as a build step.
+ * <p>
+ * Usage: {@code StartupPlanGenerator [--configuration <class>] <plan file> <directory or jar file>...}
+ * <p>
+ * The plan is bound to the configuration it was written with (annotations, additional classes,
+ * provided services, dependency resolvers, ...), so it is only used if the application is started
+ * with an equal configuration. Without {@code --configuration} the default {@link Configuration} is used,
+ * otherwise the given class must implement {@code Supplier<Configuration>}, have a public no-args constructor
+ * and return the configuration of the application.
+ * <p>
+ * The application has to be started with the same startup directories and
+ * {@link org.example.configs.GeneralConfiguration#setStartupPlanFile} pointing to the written plan.
+ */
+public class StartupPlanGenerator {
+
+    private static final String USAGE =
+            "Usage: StartupPlanGenerator [--configuration <class>] <plan file> <directory or jar file>...";
+
+    private static final String CONFIGURATION_OPTION = "--configuration";
+
+    public static void main(String[] args) {
+        int firstArgument = 0;
+        Configuration configuration = new Configuration();
+
+        if (args.length > 0 && CONFIGURATION_OPTION.equals(args[0])) {
+            if (args.length < 2) {
+                exitWithUsage();
+            }
+
+            configuration = loadConfiguration(args[1]);
+            firstArgument = 2;
+        }
+
+        if (args.length - firstArgument < 2) {
+            exitWithUsage();
+        }
+
+        configuration.general().setStartupPlanFile(Paths.get(args[firstArgument]));
+
+        InitApp.writeStartupPlan(
+                Arrays.stream(args, firstArgument + 1, args.length).map(File::new).toArray(File[]::new),
+                configuration
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Configuration loadConfiguration(String className) {
+        try {
+            final Class<?> supplierType = Class.forName(
+                    className, true, Thread.currentThread().getContextClassLoader()
+            );
+
+            return ((Supplier<Configuration>) supplierType.getConstructor().newInstance()).get();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Could not create the configuration with '%s'.", className
+            ), e);
+        }
+    }
+
+    private static void exitWithUsage() {
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a SINGLETON or PROXY service to be instantiated on first access instead of at startup.
+ * Overrides the default from {@link org.example.configs.InstantiationConfiguration#setLazyByDefault(boolean)}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Lazy {
+
+    boolean value() default true;
+}
@@ -10,8 +10,19 @@ import java.lang.annotation.Target;
  * Used to map a method which will be executed after the creation of a given service.
  * <p>
  * In order for it to work it needs to be placed on void method with zero parameters.
+ * The method can also return a {@link java.util.concurrent.CompletionStage}, in which case the service
+ * is initialized once the stage completes.
+ * <p>
+ * During startup, services that depend on a service are instantiated only after its post construct method
+ * (and the stage that it returned) has completed, other services are not held back by it.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface PostConstruct {
+
+    /**
+     * @return true if the method should run on the instantiation executor (or the common pool)
+     * instead of the startup thread. Has no effect for instances created after startup, eg. new PROTOTYPE instances.
+     */
+    boolean async() default false;
 }
@@ -1,10 +1,13 @@
 package org.example.configs;
 
+import java.nio.file.Path;
 
 public class GeneralConfiguration extends BaseSubConfiguration {
 
     private boolean runInNewThread;
 
+    private Path startupPlanFile;
+
     public GeneralConfiguration(Configuration parentConfig) {
         super(parentConfig);
     }
@@ -17,4 +20,18 @@ public class GeneralConfiguration extends BaseSubConfiguration {
     public boolean isRunInNewThread() {
         return this.runInNewThread;
     }
+
+    /**
+     * @param startupPlanFile - file in which the scanning and dependency resolution results are kept between runs,
+     *                        so that an unchanged application goes straight to instantiation
+     *                        (see {@link org.example.container.StartupPlan}). Null (default) disables the plan.
+     */
+    public GeneralConfiguration setStartupPlanFile(Path startupPlanFile) {
+        this.startupPlanFile = startupPlanFile;
+        return this;
+    }
+
+    public Path getStartupPlanFile() {
+        return this.startupPlanFile;
+    }
 }
@@ -1,22 +1,27 @@
 package org.example.configs;
 
 import org.example.container.ServiceDetails;
+import org.example.instantiations.InstantiationStrategy;
 import org.example.middleware.DependencyResolver;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 public class InstantiationConfiguration extends BaseSubConfiguration {
     private final Collection<ServiceDetails> providedServices;
     private final Set<DependencyResolver> dependencyResolvers;
-
+    private Executor instantiationExecutor;
+    private boolean lazyByDefault;
+    private InstantiationStrategy instantiationStrategy;
 
     public InstantiationConfiguration(Configuration parentConfig) {
         super(parentConfig);
         this.providedServices = new ArrayList<>();
         this.dependencyResolvers = new HashSet<>();
+        this.instantiationStrategy = InstantiationStrategy.GENERATED_BYTECODE;
     }
 
     public InstantiationConfiguration addProvidedServices(Collection<ServiceDetails> serviceDetails) {
@@ -29,6 +34,48 @@ public class InstantiationConfiguration extends BaseSubConfiguration {
         return this;
     }
 
+    /**
+     * @param instantiationExecutor - if not null, services are instantiated in parallel on the given executor
+     *                              (eg. a fork-join pool or a virtual thread per task executor), each one as soon as
+     *                              all of its dependencies are instantiated. Null (default) instantiates
+     *                              the services one by one on the startup thread.
+     */
+    public InstantiationConfiguration setInstantiationExecutor(Executor instantiationExecutor) {
+        this.instantiationExecutor = instantiationExecutor;
+        return this;
+    }
+
+    public Executor getInstantiationExecutor() {
+        return this.instantiationExecutor;
+    }
+
+    /**
+     * @param lazyByDefault - if true, SINGLETON and PROXY services which are not annotated with
+     *                      {@link org.example.annotations.Lazy} are instantiated on first access. False by default.
+     */
+    public InstantiationConfiguration setLazyByDefault(boolean lazyByDefault) {
+        this.lazyByDefault = lazyByDefault;
+        return this;
+    }
+
+    public boolean isLazyByDefault() {
+        return this.lazyByDefault;
+    }
+
+    /**
+     * @param instantiationStrategy - how services and beans are created and their lifecycle methods invoked.
+     *                              {@link InstantiationStrategy#GENERATED_BYTECODE} by default,
+     *                              {@link InstantiationStrategy#METHOD_HANDLES} does not define classes at runtime.
+     */
+    public InstantiationConfiguration setInstantiationStrategy(InstantiationStrategy instantiationStrategy) {
+        this.instantiationStrategy = instantiationStrategy;
+        return this;
+    }
+
+    public InstantiationStrategy getInstantiationStrategy() {
+        return this.instantiationStrategy;
+    }
+
     public Collection<ServiceDetails> getProvidedServices() {
         return this.providedServices;
     }
@@ -3,6 +3,7 @@ package org.example.configs;
 import org.example.middleware.ServiceDetailsCreated;
 
 import java.lang.annotation.Annotation;
+import java.nio.file.Path;
 import java.util.*;
 
 public class ScanningConfiguration extends BaseSubConfiguration {
@@ -10,7 +11,12 @@ public class ScanningConfiguration extends BaseSubConfiguration {
     private final Set<Class<? extends Annotation>> beanAnnotations;
     private final Map<Class<?>, Class<? extends Annotation>> additionalClasses;
     private final Set<ServiceDetailsCreated> serviceDetailsCreatedCallbacks;
+    private final Set<String> includedPackages;
+    private final Set<String> excludedPackages;
     private ClassLoader classLoader;
+    private boolean useServiceIndex;
+    private boolean scanClasspath;
+    private Path scanCacheFile;
 
     public ScanningConfiguration(Configuration configuration) {
         super(configuration);
@@ -18,7 +24,10 @@ public class ScanningConfiguration extends BaseSubConfiguration {
         this.beanAnnotations = new HashSet<>();
         this.additionalClasses = new HashMap<>();
         this.serviceDetailsCreatedCallbacks = new HashSet<>();
+        this.includedPackages = new HashSet<>();
+        this.excludedPackages = new HashSet<>();
         this.classLoader = Thread.currentThread().getContextClassLoader();
+        this.useServiceIndex = true;
     }
 
     public ScanningConfiguration setClassLoader(ClassLoader classLoader) {
@@ -29,6 +38,47 @@ public class ScanningConfiguration extends BaseSubConfiguration {
     public ClassLoader getClassLoader() {
         return this.classLoader;
     }
+
+    /**
+     * @param useServiceIndex - if true (default), startup directories that contain a service index generated by
+     *                        {@link org.example.processor.ServiceIndexProcessor} are not scanned.
+     */
+    public ScanningConfiguration useServiceIndex(boolean useServiceIndex) {
+        this.useServiceIndex = useServiceIndex;
+        return this;
+    }
+
+    public boolean isUseServiceIndex() {
+        return this.useServiceIndex;
+    }
+
+    /**
+     * @param scanClasspath - if true, starting from a class scans the whole class path and module path
+     *                      (see {@link org.example.directory.DirectoryResolver#resolveClasspath(ClassLoader)})
+     *                      instead of only the directory or jar file of the startup class. False by default.
+     */
+    public ScanningConfiguration scanClasspath(boolean scanClasspath) {
+        this.scanClasspath = scanClasspath;
+        return this;
+    }
+
+    public boolean isScanClasspath() {
+        return this.scanClasspath;
+    }
+
+    /**
+     * @param scanCacheFile - file in which the scanning results are kept between runs, so that only changed
+     *                      classes are scanned again. Null (default) disables the cache.
+     */
+    public ScanningConfiguration setScanCacheFile(Path scanCacheFile) {
+        this.scanCacheFile = scanCacheFile;
+        return this;
+    }
+
+    public Path getScanCacheFile() {
+        return this.scanCacheFile;
+    }
+
     public ScanningConfiguration addServiceAnnotation(Class<? extends Annotation> annotation) {
         this.serviceAnnotations.add(annotation);
         return this;
@@ -53,6 +103,24 @@ public class ScanningConfiguration extends BaseSubConfiguration {
         this.additionalClasses.putAll(additionalClasses);
         return this;
     }
+    /**
+     * Limits scanning to the given packages and their sub packages (eg. "com.example" or "com.example.*").
+     * The most specific included or excluded package wins.
+     */
+    public ScanningConfiguration addIncludedPackages(Collection<String> packages) {
+        this.includedPackages.addAll(packages);
+        return this;
+    }
+
+    /**
+     * Excludes the given packages and their sub packages from scanning (eg. "com.example.generated").
+     * The most specific included or excluded package wins.
+     */
+    public ScanningConfiguration addExcludedPackages(Collection<String> packages) {
+        this.excludedPackages.addAll(packages);
+        return this;
+    }
+
     public ScanningConfiguration addServiceDetailsCreatedCallback(ServiceDetailsCreated serviceDetailsCreated) {
         this.serviceDetailsCreatedCallbacks.add(serviceDetailsCreated);
         return this;
@@ -72,4 +140,12 @@ public class ScanningConfiguration extends BaseSubConfiguration {
     public Set<ServiceDetailsCreated> getServiceDetailsCreatedCallbacks() {
         return this.serviceDetailsCreatedCallbacks;
     }
+
+    public Set<String> getIncludedPackages() {
+        return this.includedPackages;
+    }
+
+    public Set<String> getExcludedPackages() {
+        return this.excludedPackages;
+    }
 }
@@ -7,4 +7,9 @@ public class Constants {
      * before an exception is thrown.
      */
     public static final int MAX_NUMBER_OF_INSTANTIATION_ITERATIONS = 100000;
+    /**
+     * Location of the index file that is generated at compile time by
+     * {@link org.example.processor.ServiceIndexProcessor}.
+     */
+    public static final String SERVICE_INDEX_LOCATION = "META-INF/ioc/service.index";
 }
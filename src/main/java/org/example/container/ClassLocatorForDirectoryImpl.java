@@ -1,26 +1,71 @@
 package org.example.container;
 
-import org.example.configs.Configuration;
+import org.example.configs.ScanningConfiguration;
 import org.example.constant.Constants;
 import org.example.exceptions.ClassLocationException;
+import org.example.model.ClassFileDetails;
+import org.example.util.ClassFileUtils;
 
-import java.io.File;
-import java.util.HashSet;
-import java.util.Objects;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
 
 /**
  * ClassLocator implementation for directories.
- *
- * User recursion to scan all files in the source root directory and filters
- * those that are classes (end with ".class")
+ * <p>
+ * Splits the source root directory into one fork-join task per sub directory, so that
+ * large directory trees are walked on all available cores, and filters
+ * those files that are classes (end with ".class")
+ * <p>
+ * Class files are read as bytes and only service candidates (see {@link ServiceCandidateFilter})
+ * are loaded. Loaded classes are not initialized.
  */
 public class ClassLocatorForDirectoryImpl implements ClassLocator {
     private static final String INVALID_DIRECTORY_MSG = "Invalid directory '%s'.";
     private final Set<Class<?>> locatedClasses;
+    private final ServiceCandidateFilter candidateFilter;
+    private final PackageFilter packageFilter;
 
-    public ClassLocatorForDirectoryImpl() {
-        this.locatedClasses = new HashSet<>();
+    /**
+     * Real paths of the visited directories, used to guard against symbolic link loops.
+     */
+    private final Set<Path> visitedDirectories;
+
+    private final LongAdder directoriesCount;
+
+    private final LongAdder classFilesCount;
+
+    /**
+     * Scan cache or null if caching is disabled.
+     */
+    private final ScanCache scanCache;
+
+    public ClassLocatorForDirectoryImpl(ScanningConfiguration configuration) {
+        this(configuration, null);
+    }
+
+    public ClassLocatorForDirectoryImpl(ScanningConfiguration configuration, ScanCache scanCache) {
+        this.scanCache = scanCache;
+        this.locatedClasses = ConcurrentHashMap.newKeySet();
+        this.candidateFilter = new ServiceCandidateFilter(configuration);
+        this.packageFilter = new PackageFilter(configuration.getIncludedPackages(), configuration.getExcludedPackages());
+        this.visitedDirectories = ConcurrentHashMap.newKeySet();
+        this.directoriesCount = new LongAdder();
+        this.classFilesCount = new LongAdder();
     }
 
     /**
@@ -30,62 +75,183 @@ public class ClassLocatorForDirectoryImpl implements ClassLocator {
     @Override
     public Set<Class<?>> locatedClass(String directory) {
         this.init();
-        File file = new File(directory);
-        File[] listFiles = Objects.requireNonNull(file.listFiles());
-        String initialPackage = "";
+        final Path root = Paths.get(directory);
 
-        if (!file.isDirectory()) {
+        if (!Files.isDirectory(root)) {
             throw new ClassLocationException(String.format(INVALID_DIRECTORY_MSG, directory));
         }
-        else {
-            this.processInnerFiles(listFiles, initialPackage);
+
+        try {
+            ForkJoinPool.commonPool().invoke(new ScanDirectoryTask(root, ""));
+        } catch (UncheckedIOException e) {
+            throw new ClassLocationException(e.getMessage(), e.getCause());
         }
+
         return this.locatedClasses;
     }
 
-    private void processInnerFiles(File[] listFiles, String initialPackage) {
-        try {
-            for (File innerFile : listFiles) {
-                this.scanDir(innerFile, initialPackage);
-            }
-        } catch (ClassNotFoundException e) {
-            throw new ClassLocationException(e.getMessage(), e);
-        }
+    /**
+     * @return number of directories visited during the last scan.
+     */
+    public long getDirectoriesCount() {
+        return this.directoriesCount.sum();
     }
 
     /**
-     * Recursive method for listing all files in a directory.
-     *
-     * Starts with empty package name - ""
-     * If the file is directory, for each sub file calls this method again
-     * with the package name having the current file's name and a dot "." appended
-     * in order to build a proper package name.
-     *
-     * If the file is file and its name ends with ".class" it is loaded using the
-     * built package name and it is added to a set of located classes.
+     * @return number of class files read during the last scan.
+     */
+    public long getClassFilesCount() {
+        return this.classFilesCount.sum();
+    }
+
+    /**
+     * @return number of classes that were loaded during the last scan.
+     */
+    public long getLocatedClassesCount() {
+        return this.locatedClasses.size();
+    }
+
+    /**
+     * If the file is file and its name ends with ".class" its bytes are read and
+     * if it is a service candidate it is loaded and added to a set of located classes.
      *
-     * @param file        the current file.
-     * @param packageName the current package name.
+     * @param file       the current file.
+     * @param attributes attributes of the current file.
      */
-    private void scanDir(File file, String packageName) throws ClassNotFoundException {
-        if (file.isDirectory()) {
-            packageName += file.getName() + ".";
-            File[] listFiles = Objects.requireNonNull(file.listFiles());
-            for (File innerFile : listFiles) {
-                this.scanDir(innerFile, packageName);
-            }
-        } else {
-            if (!file.getName().endsWith(Constants.JAVA_BINARY_EXTENSION)) {
-                return;
-            }
-            final String className = packageName + file
-                    .getName()
-                    .replace(Constants.JAVA_BINARY_EXTENSION, "");
-            this.locatedClasses.add(Class.forName(className, true, Thread.currentThread().getContextClassLoader()));
+    private void scanFile(Path file, BasicFileAttributes attributes) throws IOException {
+        if (!file.getFileName().toString().endsWith(Constants.JAVA_BINARY_EXTENSION)) {
+            return;
+        }
+
+        this.classFilesCount.increment();
+
+        final ScanCache.FileEntry fileEntry = this.scanCache == null
+                ? this.readFileEntry(file, Files.readAllBytes(file), attributes.lastModifiedTime().toMillis())
+                : this.readCachedFileEntry(file, attributes);
+
+        if (fileEntry.isCandidate()) {
+            this.locatedClasses.add(this.candidateFilter.loadClass(fileEntry.getClassName()));
         }
     }
 
+    /**
+     * Reads the class file only if its size and last modified time differ from the cached ones.
+     * If the content hash is still the same, the file is considered unchanged.
+     */
+    private ScanCache.FileEntry readCachedFileEntry(Path file, BasicFileAttributes attributes) throws IOException {
+        final String key = file.toAbsolutePath().toString();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        final ScanCache.FileEntry cachedEntry = this.scanCache.getFileEntry(key);
+
+        if (cachedEntry != null && cachedEntry.isSameFile(attributes.size(), lastModified)) {
+            this.scanCache.putUnchangedFileEntry(key, cachedEntry);
+            return cachedEntry;
+        }
+
+        final byte[] bytes = Files.readAllBytes(file);
+        if (cachedEntry != null && cachedEntry.isSameContent(bytes.length, this.hash(bytes))) {
+            final ScanCache.FileEntry touchedEntry = new ScanCache.FileEntry(
+                    cachedEntry.getSize(), lastModified, cachedEntry.getHash(),
+                    cachedEntry.getClassName(), cachedEntry.isCandidate()
+            );
+
+            this.scanCache.putUnchangedFileEntry(key, touchedEntry);
+            return touchedEntry;
+        }
+
+        final ScanCache.FileEntry fileEntry = this.readFileEntry(file, bytes, lastModified);
+        this.scanCache.putChangedFileEntry(key, fileEntry);
+
+        return fileEntry;
+    }
+
+    private ScanCache.FileEntry readFileEntry(Path file, byte[] bytes, long lastModified) {
+        final ClassFileDetails classFileDetails = ClassFileUtils.readClassFile(file.toString(), ByteBuffer.wrap(bytes));
+
+        return new ScanCache.FileEntry(
+                bytes.length,
+                lastModified,
+                this.scanCache == null ? 0 : this.hash(bytes),
+                classFileDetails.getClassName(),
+                this.candidateFilter.isCandidate(classFileDetails)
+        );
+    }
+
+    private long hash(byte[] bytes) {
+        final CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
     private void init() {
         this.locatedClasses.clear();
+        this.visitedDirectories.clear();
+        this.directoriesCount.reset();
+        this.classFilesCount.reset();
+    }
+
+    /**
+     * Lists a single directory, forks a new task for each sub directory
+     * and scans the files of the directory in the current thread.
+     * <p>
+     * Directories reached through symbolic links are visited only once, broken symbolic links are skipped.
+     * Sub directories that cannot contain included packages (see {@link PackageFilter}) are skipped.
+     */
+    private class ScanDirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+
+        /**
+         * Package name of the directory, built from the names of the directories starting from the root.
+         */
+        private final String packageName;
+
+        private ScanDirectoryTask(Path directory, String packageName) {
+            this.directory = directory;
+            this.packageName = packageName;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (!visitedDirectories.add(this.directory.toRealPath())) {
+                    return;
+                }
+
+                directoriesCount.increment();
+
+                final boolean isPackageIncluded = packageFilter.isPackageIncluded(this.packageName);
+                final List<ScanDirectoryTask> subTasks = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.directory)) {
+                    for (Path entry : entries) {
+                        final BasicFileAttributes attributes;
+                        try {
+                            attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                        } catch (NoSuchFileException e) {
+                            //Broken symbolic link or a file that was deleted while scanning.
+                            continue;
+                        }
+
+                        if (attributes.isDirectory()) {
+                            final String subPackageName = this.packageName.isEmpty()
+                                    ? entry.getFileName().toString()
+                                    : this.packageName + "." + entry.getFileName();
+
+                            if (packageFilter.canContainIncludedPackages(subPackageName)) {
+                                subTasks.add(new ScanDirectoryTask(entry, subPackageName));
+                            }
+                        } else if (isPackageIncluded && attributes.isRegularFile()) {
+                            scanFile(entry, attributes);
+                        }
+                    }
+                }
+
+                invokeAll(subTasks);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
@@ -1,11 +1,603 @@
 package org.example.container;
 
+import org.example.configs.ScanningConfiguration;
+import org.example.constant.Constants;
+import org.example.exceptions.ClassLocationException;
+import org.example.model.ClassFileDetails;
+import org.example.util.ClassFileUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
+/**
+ * ClassLocator implementation for jar files.
+ * <p>
+ * The jar file is memory-mapped and its central directory is read directly.
+ * Entries are filtered by name (including the package filter) before anything is decompressed and only the remaining
+ * ".class" entries are inflated (in parallel) and passed to {@link ServiceCandidateFilter}.
+ * Loaded classes are not initialized.
+ * <p>
+ * For multi-release jar files, the versioned entries from "META-INF/versions/{N}/" that apply to the current
+ * runtime replace the base entries of the same name, like they would when the classes are loaded.
+ */
 public class ClassLocatorForJarFile implements ClassLocator {
+    private static final String INVALID_JAR_FILE_MSG = "Invalid jar file '%s'.";
+
+    private static final String META_INF_PREFIX = "META-INF/";
+
+    private static final String VERSIONS_PREFIX = META_INF_PREFIX + "versions/";
+
+    private static final String MANIFEST_NAME = META_INF_PREFIX + "MANIFEST.MF";
+
+    private static final String MULTI_RELEASE_ATTRIBUTE = "Multi-Release:";
+
+    /**
+     * Returned by {@link #getVersionPrefixLength(ByteBuffer, int, int)} for entries that must be skipped.
+     */
+    private static final int SKIPPED_ENTRY = -1;
+
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int CENTRAL_DIRECTORY_ENTRY_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int CENTRAL_DIRECTORY_ENTRY_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final long ZIP64_MAGIC_VALUE = 0xFFFFFFFFL;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private final ServiceCandidateFilter candidateFilter;
+
+    private final PackageFilter packageFilter;
+
+    /**
+     * Scan cache or null if caching is disabled.
+     */
+    private final ScanCache scanCache;
+
+    /**
+     * Feature version of the current runtime, versioned entries above it are ignored.
+     */
+    private final int runtimeVersion;
+
+    public ClassLocatorForJarFile(ScanningConfiguration configuration) {
+        this(configuration, null);
+    }
+
+    public ClassLocatorForJarFile(ScanningConfiguration configuration, ScanCache scanCache) {
+        this.scanCache = scanCache;
+        this.candidateFilter = new ServiceCandidateFilter(configuration);
+        this.packageFilter = new PackageFilter(configuration.getIncludedPackages(), configuration.getExcludedPackages());
+        this.runtimeVersion = Runtime.version().feature();
+    }
+
+    /**
+     * @param directory the given jar file.
+     * @return a set of located classes.
+     */
     @Override
     public Set<Class<?>> locatedClass(String directory) {
-        //TODO: We need to find all of the located class if we run from jar file.
-        return null;
+        final MappedByteBuffer jarFile;
+        try (FileChannel channel = FileChannel.open(Paths.get(directory), StandardOpenOption.READ)) {
+            jarFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ClassLocationException(String.format(INVALID_JAR_FILE_MSG, directory), e);
+        }
+
+        jarFile.order(ByteOrder.LITTLE_ENDIAN);
+
+        final InflaterPool inflaterPool = new InflaterPool();
+        try {
+            return this.readCentralDirectory(jarFile, inflaterPool).parallelStream()
+                    .map(entry -> this.readFileEntry(directory, jarFile, entry, inflaterPool))
+                    .filter(ScanCache.FileEntry::isCandidate)
+                    .map(fileEntry -> this.candidateFilter.loadClass(fileEntry.getClassName()))
+                    .collect(Collectors.toSet());
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | ArithmeticException e) {
+            throw new ClassLocationException(String.format(INVALID_JAR_FILE_MSG, directory), e);
+        } finally {
+            inflaterPool.end();
+        }
+    }
+
+    /**
+     * Reads the class file of a given entry.
+     * If there is a cached entry with the same size and CRC-32 (taken from the central directory),
+     * nothing is decompressed.
+     */
+    private ScanCache.FileEntry readFileEntry(String directory,
+                                              ByteBuffer jarFile,
+                                              JarEntryDetails entry,
+                                              InflaterPool inflaterPool) {
+        final String key = directory + JAR_ENTRY_SEPARATOR + entry.name;
+        final ScanCache.FileEntry cachedEntry = this.scanCache == null ? null : this.scanCache.getFileEntry(key);
+
+        if (cachedEntry != null && cachedEntry.isSameContent(entry.size, entry.crc)) {
+            this.scanCache.putUnchangedFileEntry(key, cachedEntry);
+            return cachedEntry;
+        }
+
+        final EntryInflater inflater = inflaterPool.acquire();
+        final ClassFileDetails classFileDetails;
+        try {
+            classFileDetails = ClassFileUtils.readClassFile(entry.name, this.readEntry(jarFile, entry, inflater));
+        } finally {
+            inflaterPool.release(inflater);
+        }
+
+        final ScanCache.FileEntry fileEntry = new ScanCache.FileEntry(
+                entry.size,
+                entry.lastModified,
+                entry.crc,
+                classFileDetails.getClassName(),
+                this.candidateFilter.isCandidate(classFileDetails)
+        );
+
+        if (this.scanCache != null) {
+            this.scanCache.putChangedFileEntry(key, fileEntry);
+        }
+
+        return fileEntry;
+    }
+
+    /**
+     * Iterates all central directory records and keeps those that might be service classes.
+     * Versioned entries are kept only if the manifest marks the jar file as multi-release.
+     *
+     * @param jarFile - mapped jar file.
+     * @return entries that have to be inflated.
+     */
+    private List<JarEntryDetails> readCentralDirectory(ByteBuffer jarFile, InflaterPool inflaterPool) {
+        final int endOfCentralDirectory = this.findEndOfCentralDirectory(jarFile);
+
+        long entriesCount = jarFile.getShort(endOfCentralDirectory + 10) & 0xFFFF;
+        long centralDirectoryOffset = jarFile.getInt(endOfCentralDirectory + 16) & ZIP64_MAGIC_VALUE;
+
+        final int zip64Locator = endOfCentralDirectory - ZIP64_LOCATOR_SIZE;
+        if (zip64Locator >= 0 && jarFile.getInt(zip64Locator) == ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE) {
+            final int zip64EndOfCentralDirectory = Math.toIntExact(jarFile.getLong(zip64Locator + 8));
+            if (jarFile.getInt(zip64EndOfCentralDirectory) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                throw new IllegalArgumentException("Invalid zip64 end of central directory record.");
+            }
+
+            entriesCount = jarFile.getLong(zip64EndOfCentralDirectory + 32);
+            centralDirectoryOffset = jarFile.getLong(zip64EndOfCentralDirectory + 48);
+        }
+
+        final List<JarEntryDetails> entries = new ArrayList<>();
+        final List<JarEntryDetails> versionedEntries = new ArrayList<>();
+        JarEntryDetails manifestEntry = null;
+        int position = Math.toIntExact(centralDirectoryOffset);
+
+        //Entries of the same package are usually stored next to each other,
+        //so the package decision is reused while the directory part of the name stays the same.
+        int previousDirectoryPosition = -1;
+        int previousDirectoryLength = -1;
+        boolean isPreviousPackageIncluded = true;
+
+        for (long i = 0; i < entriesCount; i++) {
+            if (jarFile.getInt(position) != CENTRAL_DIRECTORY_ENTRY_SIGNATURE) {
+                throw new IllegalArgumentException("Invalid central directory entry at " + position);
+            }
+
+            final int method = jarFile.getShort(position + 10) & 0xFFFF;
+            final long lastModified = jarFile.getInt(position + 12) & ZIP64_MAGIC_VALUE;
+            final long crc = jarFile.getInt(position + 16) & ZIP64_MAGIC_VALUE;
+            long compressedSize = jarFile.getInt(position + 20) & ZIP64_MAGIC_VALUE;
+            long size = jarFile.getInt(position + 24) & ZIP64_MAGIC_VALUE;
+            final int nameLength = jarFile.getShort(position + 28) & 0xFFFF;
+            final int extraLength = jarFile.getShort(position + 30) & 0xFFFF;
+            final int commentLength = jarFile.getShort(position + 32) & 0xFFFF;
+            long localHeaderOffset = jarFile.getInt(position + 42) & ZIP64_MAGIC_VALUE;
+
+            final int namePosition = position + CENTRAL_DIRECTORY_ENTRY_SIZE;
+            position = namePosition + nameLength + extraLength + commentLength;
+
+            final boolean isManifest = this.isManifestEntry(jarFile, namePosition, nameLength);
+            final int versionPrefixLength = isManifest ? 0 : this.getVersionPrefixLength(jarFile, namePosition, nameLength);
+            if (versionPrefixLength == SKIPPED_ENTRY) {
+                continue;
+            }
+
+            //The package is taken from the name without the "META-INF/versions/{N}/" prefix.
+            final int packagePosition = namePosition + versionPrefixLength;
+            final int packageNameLength = nameLength - versionPrefixLength;
+
+            if (!isManifest && !this.packageFilter.isEmpty()) {
+                final int directoryLength = this.lastIndexOf(jarFile, packagePosition, packageNameLength, '/') + 1;
+                if (!this.isSameRegion(jarFile, previousDirectoryPosition, previousDirectoryLength, packagePosition, directoryLength)) {
+                    previousDirectoryPosition = packagePosition;
+                    previousDirectoryLength = directoryLength;
+                    isPreviousPackageIncluded = this.packageFilter.isPackageIncluded(
+                            this.readName(jarFile, packagePosition, Math.max(0, directoryLength - 1)).replace('/', '.')
+                    );
+                }
+
+                if (!isPreviousPackageIncluded) {
+                    continue;
+                }
+            }
+
+            if (size == ZIP64_MAGIC_VALUE || compressedSize == ZIP64_MAGIC_VALUE || localHeaderOffset == ZIP64_MAGIC_VALUE) {
+                final long[] zip64Values = this.readZip64ExtraField(
+                        jarFile, namePosition + nameLength, extraLength,
+                        size == ZIP64_MAGIC_VALUE, compressedSize == ZIP64_MAGIC_VALUE, localHeaderOffset == ZIP64_MAGIC_VALUE
+                );
+                size = zip64Values[0] >= 0 ? zip64Values[0] : size;
+                compressedSize = zip64Values[1] >= 0 ? zip64Values[1] : compressedSize;
+                localHeaderOffset = zip64Values[2] >= 0 ? zip64Values[2] : localHeaderOffset;
+            }
+
+            final JarEntryDetails entry = new JarEntryDetails(
+                    this.readName(jarFile, namePosition, nameLength),
+                    versionPrefixLength,
+                    method,
+                    lastModified,
+                    crc,
+                    Math.toIntExact(compressedSize),
+                    Math.toIntExact(size),
+                    Math.toIntExact(localHeaderOffset)
+            );
+
+            if (isManifest) {
+                manifestEntry = entry;
+            } else if (versionPrefixLength > 0) {
+                versionedEntries.add(entry);
+            } else {
+                entries.add(entry);
+            }
+        }
+
+        if (versionedEntries.isEmpty() || manifestEntry == null || !this.isMultiRelease(jarFile, manifestEntry, inflaterPool)) {
+            return entries;
+        }
+
+        return this.mergeVersionedEntries(entries, versionedEntries);
+    }
+
+    /**
+     * Replaces base entries with the versioned entries of the same name, the highest version wins.
+     */
+    private List<JarEntryDetails> mergeVersionedEntries(List<JarEntryDetails> entries, List<JarEntryDetails> versionedEntries) {
+        final Map<String, JarEntryDetails> entriesByName = new LinkedHashMap<>();
+        for (JarEntryDetails entry : entries) {
+            entriesByName.put(entry.name, entry);
+        }
+
+        versionedEntries.sort(Comparator.comparingInt(JarEntryDetails::getVersion));
+        for (JarEntryDetails entry : versionedEntries) {
+            entriesByName.put(entry.name.substring(entry.versionPrefixLength), entry);
+        }
+
+        return new ArrayList<>(entriesByName.values());
+    }
+
+    private boolean isMultiRelease(ByteBuffer jarFile, JarEntryDetails manifestEntry, InflaterPool inflaterPool) {
+        final EntryInflater inflater = inflaterPool.acquire();
+        final String manifest;
+        try {
+            manifest = StandardCharsets.UTF_8.decode(this.readEntry(jarFile, manifestEntry, inflater)).toString();
+        } finally {
+            inflaterPool.release(inflater);
+        }
+
+        for (String line : manifest.split("\\r?\\n|\\r")) {
+            if (line.regionMatches(true, 0, MULTI_RELEASE_ATTRIBUTE, 0, MULTI_RELEASE_ATTRIBUTE.length())) {
+                return Boolean.parseBoolean(line.substring(MULTI_RELEASE_ATTRIBUTE.length()).trim());
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isManifestEntry(ByteBuffer jarFile, int namePosition, int nameLength) {
+        return nameLength == MANIFEST_NAME.length() && this.startsWith(jarFile, namePosition, nameLength, MANIFEST_NAME);
+    }
+
+    /**
+     * Checks the name of the entry without creating a String.
+     * Directories, non class files and everything in META-INF except for the versioned entries are skipped,
+     * as well as versioned entries for a newer runtime.
+     *
+     * @return length of the "META-INF/versions/{N}/" prefix, 0 for base entries or {@link #SKIPPED_ENTRY}.
+     */
+    private int getVersionPrefixLength(ByteBuffer jarFile, int namePosition, int nameLength) {
+        if (!this.endsWith(jarFile, namePosition, nameLength, Constants.JAVA_BINARY_EXTENSION)) {
+            return SKIPPED_ENTRY;
+        }
+
+        if (!this.startsWith(jarFile, namePosition, nameLength, META_INF_PREFIX)) {
+            return 0;
+        }
+
+        if (!this.startsWith(jarFile, namePosition, nameLength, VERSIONS_PREFIX)) {
+            return SKIPPED_ENTRY;
+        }
+
+        int version = 0;
+        for (int i = VERSIONS_PREFIX.length(); i < nameLength; i++) {
+            final byte character = jarFile.get(namePosition + i);
+            if (character == '/') {
+                return i > VERSIONS_PREFIX.length() && version <= this.runtimeVersion ? i + 1 : SKIPPED_ENTRY;
+            }
+
+            if (character < '0' || character > '9' || version > this.runtimeVersion) {
+                return SKIPPED_ENTRY;
+            }
+
+            version = version * 10 + (character - '0');
+        }
+
+        return SKIPPED_ENTRY;
+    }
+
+    private int findEndOfCentralDirectory(ByteBuffer jarFile) {
+        final int last = jarFile.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        final int first = Math.max(0, last - MAX_COMMENT_SIZE);
+
+        for (int position = last; position >= first; position--) {
+            if (jarFile.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+
+        throw new IllegalArgumentException("End of central directory record was not found.");
+    }
+
+    /**
+     * Reads the zip64 extended information extra field.
+     * Values are present only for the fields that are set to 0xFFFFFFFF in the central directory record.
+     *
+     * @return uncompressed size, compressed size and local header offset or -1 for absent values.
+     */
+    private long[] readZip64ExtraField(ByteBuffer jarFile, int extraPosition, int extraLength,
+                                       boolean hasSize, boolean hasCompressedSize, boolean hasOffset) {
+        final long[] values = {-1, -1, -1};
+        final int end = extraPosition + extraLength;
+        int position = extraPosition;
+
+        while (position + 4 <= end) {
+            final int headerId = jarFile.getShort(position) & 0xFFFF;
+            final int dataSize = jarFile.getShort(position + 2) & 0xFFFF;
+            int dataPosition = position + 4;
+
+            if (headerId == ZIP64_EXTRA_FIELD_ID) {
+                if (hasSize) {
+                    values[0] = jarFile.getLong(dataPosition);
+                    dataPosition += 8;
+                }
+                if (hasCompressedSize) {
+                    values[1] = jarFile.getLong(dataPosition);
+                    dataPosition += 8;
+                }
+                if (hasOffset) {
+                    values[2] = jarFile.getLong(dataPosition);
+                }
+
+                return values;
+            }
+
+            position += 4 + dataSize;
+        }
+
+        return values;
+    }
+
+    /**
+     * Returns the content of a given entry.
+     * Stored entries are sliced from the mapped file, deflated ones are inflated in the buffer of the given inflater,
+     * so the content is valid only until the inflater is released.
+     */
+    private ByteBuffer readEntry(ByteBuffer jarFile, JarEntryDetails entry, EntryInflater inflater) {
+        if (jarFile.getInt(entry.localHeaderOffset) != LOCAL_FILE_HEADER_SIGNATURE) {
+            throw new IllegalArgumentException("Invalid local file header for " + entry.name);
+        }
+
+        final int nameLength = jarFile.getShort(entry.localHeaderOffset + 26) & 0xFFFF;
+        final int extraLength = jarFile.getShort(entry.localHeaderOffset + 28) & 0xFFFF;
+        final int dataPosition = entry.localHeaderOffset + LOCAL_FILE_HEADER_SIZE + nameLength + extraLength;
+
+        final ByteBuffer compressedData = jarFile.duplicate();
+        compressedData.position(dataPosition).limit(dataPosition + entry.compressedSize);
+
+        if (entry.method == METHOD_STORED) {
+            return compressedData.slice();
+        }
+
+        if (entry.method != METHOD_DEFLATED) {
+            throw new IllegalArgumentException(String.format(
+                    "Unsupported compression method %d for %s.", entry.method, entry.name
+            ));
+        }
+
+        return this.inflate(compressedData, entry, inflater);
+    }
+
+    private ByteBuffer inflate(ByteBuffer compressedData, JarEntryDetails entry, EntryInflater entryInflater) {
+        final byte[] buffer = entryInflater.getBuffer(entry.size);
+        final Inflater inflater = entryInflater.inflater;
+        inflater.reset();
+        inflater.setInput(compressedData);
+
+        try {
+            int length = 0;
+            while (length < entry.size && !inflater.finished()) {
+                final int inflated = inflater.inflate(buffer, length, entry.size - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+
+                length += inflated;
+            }
+
+            return ByteBuffer.wrap(buffer, 0, length);
+        } catch (DataFormatException e) {
+            throw new ClassLocationException(String.format(INVALID_JAR_FILE_MSG, entry.name), e);
+        }
+    }
+
+    private String readName(ByteBuffer jarFile, int namePosition, int nameLength) {
+        final byte[] name = new byte[nameLength];
+        for (int i = 0; i < nameLength; i++) {
+            name[i] = jarFile.get(namePosition + i);
+        }
+
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private int lastIndexOf(ByteBuffer jarFile, int namePosition, int nameLength, char character) {
+        for (int i = nameLength - 1; i >= 0; i--) {
+            if (jarFile.get(namePosition + i) == character) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean isSameRegion(ByteBuffer jarFile, int position, int length, int otherPosition, int otherLength) {
+        if (position < 0 || length != otherLength) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (jarFile.get(position + i) != jarFile.get(otherPosition + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean startsWith(ByteBuffer jarFile, int namePosition, int nameLength, String prefix) {
+        if (nameLength < prefix.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+            if (jarFile.get(namePosition + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean endsWith(ByteBuffer jarFile, int namePosition, int nameLength, String suffix) {
+        return nameLength >= suffix.length() &&
+                this.startsWith(jarFile, namePosition + nameLength - suffix.length(), suffix.length(), suffix);
+    }
+
+    /**
+     * Inflaters for the entries of one jar file, which are inflated in parallel.
+     * Every thread takes an inflater for a single entry and gives it back afterwards.
+     * All inflaters are ended once the jar file is read, so their native memory is freed right away.
+     */
+    private static final class InflaterPool {
+        private final Queue<EntryInflater> availableInflaters = new ConcurrentLinkedQueue<>();
+        private final Queue<EntryInflater> createdInflaters = new ConcurrentLinkedQueue<>();
+
+        private EntryInflater acquire() {
+            final EntryInflater inflater = this.availableInflaters.poll();
+            if (inflater != null) {
+                return inflater;
+            }
+
+            final EntryInflater newInflater = new EntryInflater();
+            this.createdInflaters.add(newInflater);
+
+            return newInflater;
+        }
+
+        private void release(EntryInflater inflater) {
+            this.availableInflaters.add(inflater);
+        }
+
+        private void end() {
+            this.availableInflaters.clear();
+            for (EntryInflater inflater = this.createdInflaters.poll(); inflater != null;
+                 inflater = this.createdInflaters.poll()) {
+                inflater.inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Inflater with its output buffer.
+     */
+    private static final class EntryInflater {
+        private final Inflater inflater = new Inflater(true);
+        private byte[] buffer = new byte[8192];
+
+        private byte[] getBuffer(int size) {
+            if (this.buffer.length < size) {
+                this.buffer = new byte[size];
+            }
+
+            return this.buffer;
+        }
+    }
+
+    /**
+     * Information from a central directory record that is needed to read the entry.
+     */
+    private static final class JarEntryDetails {
+        private final String name;
+        /**
+         * Length of the "META-INF/versions/{N}/" prefix or 0 for base entries.
+         */
+        private final int versionPrefixLength;
+        private final int method;
+        private final long lastModified;
+        private final long crc;
+        private final int compressedSize;
+        private final int size;
+        private final int localHeaderOffset;
+
+        private JarEntryDetails(String name, int versionPrefixLength, int method, long lastModified, long crc,
+                                int compressedSize, int size, int localHeaderOffset) {
+            this.name = name;
+            this.versionPrefixLength = versionPrefixLength;
+            this.method = method;
+            this.lastModified = lastModified;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        private int getVersion() {
+            if (this.versionPrefixLength == 0) {
+                return 0;
+            }
+
+            return Integer.parseInt(this.name.substring(VERSIONS_PREFIX.length(), this.versionPrefixLength - 1));
+        }
     }
 }
@@ -0,0 +1,97 @@
+package org.example.container;
+
+import org.example.configs.ScanningConfiguration;
+import org.example.constant.Constants;
+import org.example.exceptions.ClassLocationException;
+import org.example.model.ClassFileDetails;
+import org.example.util.ClassFileUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.module.ModuleReader;
+import java.lang.module.ResolvedModule;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * ClassLocator implementation for modules of the boot layer that have no file location
+ * (eg. application modules linked into a runtime image).
+ * <p>
+ * The content of the module is listed and read with a {@link ModuleReader},
+ * class files are passed to {@link ServiceCandidateFilter} and only service candidates are loaded.
+ * Loaded classes are not initialized.
+ */
+public class ClassLocatorForModule implements ClassLocator {
+    private static final String INVALID_MODULE_MSG = "Invalid module '%s'.";
+
+    private static final String MODULE_INFO_CLASS = "module-info.class";
+
+    private final ServiceCandidateFilter candidateFilter;
+
+    private final PackageFilter packageFilter;
+
+    public ClassLocatorForModule(ScanningConfiguration configuration) {
+        this.candidateFilter = new ServiceCandidateFilter(configuration);
+        this.packageFilter = new PackageFilter(configuration.getIncludedPackages(), configuration.getExcludedPackages());
+    }
+
+    /**
+     * @param directory the name of the module.
+     * @return a set of located classes.
+     */
+    @Override
+    public Set<Class<?>> locatedClass(String directory) {
+        final ResolvedModule module = ModuleLayer.boot().configuration().findModule(directory)
+                .orElseThrow(() -> new ClassLocationException(String.format(INVALID_MODULE_MSG, directory)));
+
+        final Set<Class<?>> locatedClasses = new HashSet<>();
+
+        //A ModuleReader is not required to be thread safe, so the entries are read sequentially.
+        try (ModuleReader moduleReader = module.reference().open(); Stream<String> entries = moduleReader.list()) {
+            final Iterator<String> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                final String entry = iterator.next();
+                if (!this.isCandidateEntry(entry)) {
+                    continue;
+                }
+
+                final ClassFileDetails classFileDetails = this.readClassFile(moduleReader, entry);
+                if (classFileDetails != null && this.candidateFilter.isCandidate(classFileDetails)) {
+                    locatedClasses.add(this.candidateFilter.loadClass(classFileDetails.getClassName()));
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new ClassLocationException(String.format(INVALID_MODULE_MSG, directory), e);
+        }
+
+        return locatedClasses;
+    }
+
+    private boolean isCandidateEntry(String entry) {
+        if (!entry.endsWith(Constants.JAVA_BINARY_EXTENSION) || entry.equals(MODULE_INFO_CLASS)) {
+            return false;
+        }
+
+        final int lastSeparator = entry.lastIndexOf('/');
+        return this.packageFilter.isPackageIncluded(
+                lastSeparator < 0 ? "" : entry.substring(0, lastSeparator).replace('/', '.')
+        );
+    }
+
+    private ClassFileDetails readClassFile(ModuleReader moduleReader, String entry) throws IOException {
+        final Optional<ByteBuffer> classFile = moduleReader.read(entry);
+        if (classFile.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return ClassFileUtils.readClassFile(entry, classFile.get());
+        } finally {
+            moduleReader.release(classFile.get());
+        }
+    }
+}
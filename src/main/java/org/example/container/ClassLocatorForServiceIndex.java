@@ -0,0 +1,96 @@
+package org.example.container;
+
+import org.example.configs.ScanningConfiguration;
+import org.example.constant.Constants;
+import org.example.directory.Directory;
+import org.example.directory.DirectoryType;
+import org.example.exceptions.ClassLocationException;
+import org.example.processor.IndexedElementType;
+import org.example.util.ServiceIndexUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+
+/**
+ * ClassLocator implementation that reads the service index generated at compile time
+ * by {@link org.example.processor.ServiceIndexProcessor} instead of walking the directory.
+ * <p>
+ * Only the indexed services are loaded and they are not initialized.
+ */
+public class ClassLocatorForServiceIndex implements ClassLocator {
+    private static final String INVALID_INDEX_MSG = "Invalid service index in '%s'.";
+
+    private final ServiceCandidateFilter candidateFilter;
+
+    private final PackageFilter packageFilter;
+
+    /**
+     * Type of the directory given to {@link #locatedClass(String)}.
+     */
+    private final DirectoryType directoryType;
+
+    public ClassLocatorForServiceIndex(ScanningConfiguration configuration, DirectoryType directoryType) {
+        this.candidateFilter = new ServiceCandidateFilter(configuration);
+        this.packageFilter = new PackageFilter(configuration.getIncludedPackages(), configuration.getExcludedPackages());
+        this.directoryType = directoryType;
+    }
+
+    /**
+     * @param directory - given directory or jar file.
+     * @return true if the directory contains a service index, always false for modules.
+     */
+    public static boolean isIndexPresent(Directory directory) {
+        if (directory.getDirectoryType() == DirectoryType.MODULE) {
+            return false;
+        }
+
+        if (directory.getDirectoryType() == DirectoryType.DIRECTORY) {
+            return Files.isRegularFile(Paths.get(directory.getDirectory(), Constants.SERVICE_INDEX_LOCATION));
+        }
+
+        try (JarFile jarFile = new JarFile(directory.getDirectory())) {
+            return jarFile.getEntry(Constants.SERVICE_INDEX_LOCATION) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param directory the given directory or jar file.
+     * @return set of the indexed services.
+     */
+    @Override
+    public Set<Class<?>> locatedClass(String directory) {
+        try {
+            return ServiceIndexUtils.readIndex(this.readIndex(directory)).entrySet().stream()
+                    .filter(entry -> entry.getValue().contains(IndexedElementType.SERVICE))
+                    .filter(entry -> this.packageFilter.isClassIncluded(entry.getKey()))
+                    .map(entry -> this.candidateFilter.loadClass(entry.getKey()))
+                    .collect(Collectors.toSet());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ClassLocationException(String.format(INVALID_INDEX_MSG, directory), e);
+        }
+    }
+
+    private String readIndex(String directory) throws IOException {
+        if (this.directoryType == DirectoryType.DIRECTORY) {
+            final Path index = Paths.get(directory, Constants.SERVICE_INDEX_LOCATION);
+            return Files.readString(index, StandardCharsets.UTF_8);
+        }
+
+        try (JarFile jarFile = new JarFile(directory)) {
+            final ZipEntry entry = jarFile.getEntry(Constants.SERVICE_INDEX_LOCATION);
+            try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
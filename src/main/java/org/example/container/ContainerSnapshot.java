@@ -0,0 +1,86 @@
+package org.example.container;
+
+import java.util.Collection;
+
+/**
+ * Immutable state of a {@link DependencyContainerInternal}: the {@link ServiceRegistryIndex} and the shared instances
+ * of the services by their id (see {@link ServiceDetails#getServiceId()}).
+ * <p>
+ * Readers take the current snapshot once per lookup and never lock or see a half updated state.
+ * Writers never modify a snapshot, they create a new one with an incremented version and publish it.
+ * Only shared instances are stored (see {@link ServiceDetails#isInstanceShared()}), the other slots are null.
+ */
+final class ContainerSnapshot {
+
+    private final long version;
+
+    private final ServiceRegistryIndex registryIndex;
+
+    private final Object[] instances;
+
+    ContainerSnapshot(Collection<ServiceDetails> servicesAndBeans) {
+        this.version = 0;
+        this.registryIndex = new ServiceRegistryIndex(servicesAndBeans);
+        this.instances = new Object[this.registryIndex.size()];
+
+        for (ServiceDetails serviceDetails : servicesAndBeans) {
+            this.instances[serviceDetails.getServiceId()] = getSharedInstance(serviceDetails);
+        }
+    }
+
+    private ContainerSnapshot(long version, ServiceRegistryIndex registryIndex, Object[] instances) {
+        this.version = version;
+        this.registryIndex = registryIndex;
+        this.instances = instances;
+    }
+
+    long getVersion() {
+        return this.version;
+    }
+
+    ServiceRegistryIndex getRegistryIndex() {
+        return this.registryIndex;
+    }
+
+    /**
+     * @return the shared instance of the service with the given id or null.
+     */
+    Object getInstance(int serviceId) {
+        return this.instances[serviceId];
+    }
+
+    /**
+     * @param serviceDetails - service that already has its new instance.
+     * @param oldInstance    - the previous instance of the service or null.
+     * @return the next version with the new instance of the service.
+     */
+    ContainerSnapshot withInstance(ServiceDetails serviceDetails, Object oldInstance) {
+        final Object[] instances = this.instances.clone();
+        instances[serviceDetails.getServiceId()] = getSharedInstance(serviceDetails);
+
+        return new ContainerSnapshot(
+                this.version + 1,
+                this.registryIndex.withInstance(serviceDetails, oldInstance),
+                instances
+        );
+    }
+
+    /**
+     * @param serviceDetails - lazy service that has been instantiated.
+     * @return the next version with the instance of the service or this snapshot if it is already stored.
+     */
+    ContainerSnapshot withLazyInstance(ServiceDetails serviceDetails) {
+        if (this.instances[serviceDetails.getServiceId()] != null || !serviceDetails.isInstanceShared()) {
+            return this;
+        }
+
+        final Object[] instances = this.instances.clone();
+        instances[serviceDetails.getServiceId()] = serviceDetails.getInstance();
+
+        return new ContainerSnapshot(this.version + 1, this.registryIndex, instances);
+    }
+
+    private static Object getSharedInstance(ServiceDetails serviceDetails) {
+        return serviceDetails.isInstanceShared() ? serviceDetails.getInstance() : null;
+    }
+}
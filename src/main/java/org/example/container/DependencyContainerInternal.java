@@ -4,18 +4,23 @@ package org.example.container;
 
 import org.example.exceptions.AlreadyInitializedException;
 import org.example.instantiations.ServiceBeanDetails;
-import org.example.util.DependencyParamUtils;
 import org.example.util.ObjectInstantiationUtils;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 
 /**
  * Container for all services and beans.
  * <p>
  * Contains functionality for managing the application context
  * by reloading or accessing certain services.
+ * <p>
+ * Lookups read the current {@link ContainerSnapshot} and never lock.
+ * {@link #reload} creates the new instance first, then {@link #update} and {@link #reload} are serialized
+ * while they publish the new instance in a new snapshot and only then destroy the old instance,
+ * so a concurrent lookup gets either the old or the new instance but never null.
  */
 public class DependencyContainerInternal implements DependencyContainerV2 {
 
@@ -29,12 +34,25 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
 
     private Collection<ServiceDetails> servicesAndBeans;
 
+    private DependencyGraph dependencyGraph;
+
+    private CompletableFuture<Void> readiness;
+
+    /**
+     * Answers all lookups of services, so that a lookup of a SINGLETON or PROXY service is a single array load.
+     * Replaced on every update, reload and on the first access of a lazy service.
+     */
+    private volatile ContainerSnapshot snapshot;
+
+    private final Object snapshotLock = new Object();
+
     public DependencyContainerInternal() {
         this.isInit = false;
     }
 
     protected void init(Collection<Class<?>> locatedClasses,
-                        Collection<ServiceDetails> servicesAndBeans) throws AlreadyInitializedException {
+                        Collection<ServiceDetails> servicesAndBeans,
+                        DependencyGraph dependencyGraph) throws AlreadyInitializedException {
         if (this.isInit) {
             throw new AlreadyInitializedException(ALREADY_INITIALIZED_MSG);
         }
@@ -42,20 +60,41 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
         this.allLocatedClasses = locatedClasses;
         this.servicesAndBeans = servicesAndBeans;
 
+        ServiceRegistryIndex.assignServiceIds(servicesAndBeans);
+        this.snapshot = new ContainerSnapshot(servicesAndBeans);
+        this.dependencyGraph = dependencyGraph;
+        this.readiness = CompletableFuture.allOf(servicesAndBeans.stream()
+                .map(ServiceDetails::getReadiness)
+                .toArray(CompletableFuture[]::new));
+
         this.isInit = true;
     }
 
     /**
-     * Creates a new instance for a given service and destroys the current one.
+     * Creates a new instance for a given service and destroys the current one once the new one is published.
      * <p>
+     * The new instance (including its post construct method) is created and the old one is destroyed
+     * without holding the lock, so lookups that publish a snapshot (eg. the first access of a lazy service)
+     * are not held back by them.
      *
      * @param serviceDetails - the given service.
      */
     @Override
     public void reload(ServiceDetails serviceDetails) {
-        ObjectInstantiationUtils.destroyInstance(serviceDetails);
-        final Object newInstance = this.getNewInstance(serviceDetails.getServiceType(), serviceDetails.getInstanceName());
-        serviceDetails.setInstance(newInstance);
+        //A lazy service that was never accessed will be created with a new instance anyway.
+        if (serviceDetails.isLazyInitializationPending()) {
+            return;
+        }
+
+        final Object newInstance = this.createNewInstance(serviceDetails);
+
+        final Object oldInstance;
+        synchronized (this.snapshotLock) {
+            oldInstance = serviceDetails.getActualInstance();
+            this.replaceInstance(serviceDetails, newInstance);
+        }
+
+        ObjectInstantiationUtils.destroyInstance(serviceDetails, oldInstance);
     }
 
     @Override
@@ -96,11 +135,49 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
             throw new IllegalArgumentException(String.format(SERVICE_NOT_FOUND_FORMAT, serviceType.getName()));
         }
 
+        final Object oldInstance;
+        synchronized (this.snapshotLock) {
+            oldInstance = serviceDetails.getActualInstance();
+            this.replaceInstance(serviceDetails, serviceInstance);
+        }
+
         if (destroyOldInstance) {
-            ObjectInstantiationUtils.destroyInstance(serviceDetails);
+            ObjectInstantiationUtils.destroyInstance(serviceDetails, oldInstance);
         }
+    }
 
-        serviceDetails.setInstance(serviceInstance);
+    /**
+     * Sets the new instance and publishes the next snapshot.
+     * The lookups of the types that only the old or only the new instance is assignable to are recomputed,
+     * see {@link ServiceRegistryIndex#withInstance}.
+     */
+    private void replaceInstance(ServiceDetails serviceDetails, Object newInstance) {
+        final Object oldInstance = serviceDetails.getActualInstance();
+
+        serviceDetails.setInstance(newInstance);
+        this.publishSnapshot(snapshot -> snapshot.withInstance(serviceDetails, oldInstance));
+        this.dropDependantArgumentsPlans(serviceDetails);
+    }
+
+    private void publishSnapshot(UnaryOperator<ContainerSnapshot> nextSnapshot) {
+        synchronized (this.snapshotLock) {
+            this.snapshot = nextSnapshot.apply(this.snapshot);
+        }
+    }
+
+    /**
+     * The precomputed arguments of the services that depend on the given one may contain its old instance.
+     *
+     * @param serviceDetails - service with a new instance.
+     */
+    private void dropDependantArgumentsPlans(ServiceDetails serviceDetails) {
+        if (this.dependencyGraph == null) {
+            return;
+        }
+
+        for (ServiceDetails dependant : this.dependencyGraph.getDependants(serviceDetails)) {
+            dependant.setInstanceArgumentsPlan(null);
+        }
     }
 
     /**
@@ -118,10 +195,28 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getService(Class<?> serviceType, String instanceName) {
+        if (instanceName == null) {
+            final ContainerSnapshot snapshot = this.snapshot;
+            final int serviceId = snapshot.getRegistryIndex().getServiceId(serviceType);
+            if (serviceId >= 0) {
+                final Object instance = snapshot.getInstance(serviceId);
+                if (instance != null) {
+                    return (T) instance;
+                }
+            }
+        }
+
         final ServiceDetails serviceDetails = this.getServiceDetails(serviceType, instanceName);
 
         if (serviceDetails != null) {
-            return (T) serviceDetails.getInstance();
+            final Object instance = serviceDetails.getInstance();
+
+            //Lazy services are shared once they are instantiated.
+            if (instance != null && serviceDetails.isInstanceShared() && this.snapshot.getInstance(serviceDetails.getServiceId()) == null) {
+                this.publishSnapshot(snapshot -> snapshot.withLazyInstance(serviceDetails));
+            }
+
+            return (T) instance;
         }
 
         if (serviceType.isAssignableFrom(this.getClass())) {
@@ -131,6 +226,28 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
         return null;
     }
 
+    @Override
+    public <T> Provider<T> getProvider(Class<T> serviceType) {
+        return this.getProvider(serviceType, null);
+    }
+
+    /**
+     * Looks up the service once, see {@link ServiceProvider}.
+     *
+     * @param serviceType  - given service type.
+     * @param instanceName - given instance name or null.
+     * @return provider of the service.
+     */
+    @Override
+    public <T> Provider<T> getProvider(Class<T> serviceType, String instanceName) {
+        final ServiceDetails serviceDetails = this.findServiceDetails(serviceType, instanceName);
+        if (serviceDetails == null) {
+            throw new IllegalArgumentException(String.format(SERVICE_NOT_FOUND_FORMAT, serviceType.getName()));
+        }
+
+        return new ServiceProvider<>(serviceDetails);
+    }
+
     @Override
     public <T> T getNewInstance(Class<?> serviceType) {
         return this.getNewInstance(serviceType, null);
@@ -145,19 +262,20 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
             throw new IllegalArgumentException(String.format(SERVICE_NOT_FOUND_FORMAT, serviceType.getName()));
         }
 
-        final Object oldInstance = serviceDetails.getActualInstance();
+        serviceDetails.ensureInstantiated();
+
+        return (T) this.createNewInstance(serviceDetails);
+    }
 
+    /**
+     * Creates a new instance without changing the instance of the service details.
+     */
+    private Object createNewInstance(ServiceDetails serviceDetails) {
         if (serviceDetails instanceof ServiceBeanDetails) {
-            final ServiceBeanDetails serviceBeanDetails = (ServiceBeanDetails) serviceDetails;
-            ObjectInstantiationUtils.createBeanInstance(serviceBeanDetails);
-        } else {
-            ObjectInstantiationUtils.createInstance(serviceDetails);
+            return ObjectInstantiationUtils.createNewInstance((ServiceBeanDetails) serviceDetails);
         }
 
-        final Object newInstance = serviceDetails.getActualInstance();
-        serviceDetails.setInstance(oldInstance);
-
-        return (T) newInstance;
+        return ObjectInstantiationUtils.createNewInstance(serviceDetails);
     }
 
     /**
@@ -189,14 +307,14 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
      * @return service details if found or null.
      */
     private ServiceDetails findServiceDetails(Class<?> serviceType, String instanceName) {
-        return this.servicesAndBeans.stream()
-                .filter(sd -> DependencyParamUtils.isServiceCompatible(sd, serviceType, instanceName))
-                .findFirst().orElse(null);
+        return this.snapshot.getRegistryIndex().findServiceDetails(serviceType, instanceName);
     }
 
     /**
-     * @return a collection of all classes that were found in the application
-     * including even classes that are not annotated with any annotation.
+     * Only service candidates are loaded while scanning, so this is not every class of the application.
+     *
+     * @return the located classes that are service candidates (see {@link ServiceCandidateFilter}),
+     * or the indexed classes of directories with a service index.
      */
     @Override
     public Collection<Class<?>> getAllScannedClasses() {
@@ -209,9 +327,7 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
      */
     @Override
     public Collection<ServiceDetails> getImplementations(Class<?> serviceType) {
-        return this.servicesAndBeans.stream()
-                .filter(sd -> serviceType.isAssignableFrom(sd.getServiceType()))
-                .collect(Collectors.toList());
+        return this.snapshot.getRegistryIndex().getImplementations(serviceType);
     }
 
     /**
@@ -221,9 +337,15 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
      */
     @Override
     public Collection<ServiceDetails> getServicesByAnnotation(Class<? extends Annotation> annotationType) {
-        return this.servicesAndBeans.stream()
-                .filter(sd -> sd.getAnnotation() != null && sd.getAnnotation().annotationType() == annotationType)
-                .collect(Collectors.toList());
+        return this.snapshot.getRegistryIndex().getServicesByAnnotation(annotationType);
+    }
+
+    /**
+     * @return the resolved dependency graph of all services.
+     */
+    @Override
+    public DependencyGraph getDependencyGraph() {
+        return this.dependencyGraph;
     }
 
     /**
@@ -233,4 +355,12 @@ public class DependencyContainerInternal implements DependencyContainerV2 {
     public Collection<ServiceDetails> getAllServices() {
         return this.servicesAndBeans;
     }
+
+    /**
+     * Readiness of all services and beans, see {@link ServiceDetails#getReadiness()}.
+     */
+    @Override
+    public CompletableFuture<Void> getReadiness() {
+        return this.readiness;
+    }
 }
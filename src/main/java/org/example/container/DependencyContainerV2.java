@@ -4,6 +4,7 @@ import org.example.exceptions.AlreadyInitializedException;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 public interface DependencyContainerV2 {
 
@@ -23,12 +24,24 @@ public interface DependencyContainerV2 {
 
     <T> T getNewInstance(Class<?> serviceType);
 
+    /**
+     * @param serviceType - the required type.
+     * @return provider bound to the service of the given type, which stays valid when the service is reloaded.
+     * @throws IllegalArgumentException - if there is no such service.
+     */
+    <T> Provider<T> getProvider(Class<T> serviceType);
+
+    <T> Provider<T> getProvider(Class<T> serviceType, String instanceName);
+
     <T> T getNewInstance(Class<?> serviceType, String instanceName);
 
     ServiceDetails getServiceDetails(Class<?> serviceType);
 
     ServiceDetails getServiceDetails(Class<?> serviceType, String instanceName);
 
+    /**
+     * @return the located service candidates, see {@link DependencyContainerInternal#getAllScannedClasses()}.
+     */
     Collection<Class<?>> getAllScannedClasses();
 
     Collection<ServiceDetails> getImplementations(Class<?> serviceType);
@@ -36,4 +49,13 @@ public interface DependencyContainerV2 {
     Collection<ServiceDetails> getServicesByAnnotation(Class<? extends Annotation> annotationType);
 
     Collection<ServiceDetails> getAllServices();
+
+    DependencyGraph getDependencyGraph();
+
+    /**
+     * @return completes when the post construct methods of all services have completed
+     * (including {@link org.example.annotations.PostConstruct#async()} ones),
+     * fails with the exception of the first one that failed.
+     */
+    CompletableFuture<Void> getReadiness();
 }
@@ -0,0 +1,348 @@
+package org.example.container;
+
+import org.example.exceptions.CircularDependencyException;
+import org.example.instantiations.EnqueuedServiceDetails;
+import org.example.instantiations.ServiceBeanDetails;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable dependency graph of all resolved services.
+ * <p>
+ * Every service is a node with a dense int id (its index in the list given to the constructor).
+ * The edges point from a service to the services it depends on (aspect handlers, constructor and field dependencies).
+ * Beans are not nodes, a dependency on a bean is an edge to the service that declares it.
+ * <p>
+ * The instantiation order is computed once with an iterative Tarjan strongly connected components search
+ * in O(V + E), visiting the services and their edges in the order in which they were given.
+ * Components are found dependencies first, so if every component is a single service without a self reference,
+ * the order in which they are found is the instantiation order.
+ * Otherwise every component with more than one service (or with a self reference) is a circular dependency
+ * and all of them are reported at once.
+ */
+public final class DependencyGraph {
+
+    private static final int NOT_VISITED = -1;
+
+    private final EnqueuedServiceDetails[] nodes;
+
+    private final Map<ServiceDetails, Integer> ids;
+
+    /**
+     * Ids of the services that a given service depends on, indexed by service id.
+     */
+    private final int[][] dependencies;
+
+    /**
+     * Description of the aspect, constructor parameter or field that creates each dependency,
+     * indexed the same way as {@link #dependencies}.
+     */
+    private final String[][] edgeDescriptions;
+
+    /**
+     * Ids of the services that depend on a given service, indexed by service id.
+     */
+    private final int[][] dependants;
+
+    /**
+     * Service ids sorted so that every service comes after its dependencies.
+     */
+    private final int[] instantiationOrder;
+
+    private final List<EnqueuedServiceDetails> orderedNodes;
+
+    /**
+     * @param nodes        - resolved services, the index of a service is its id.
+     * @param dependencies     - ids of the dependencies of every service, indexed by service id.
+     * @param edgeDescriptions - what creates each dependency, indexed the same way as the dependencies.
+     * @throws CircularDependencyException - if the services cannot be ordered due to circular dependencies.
+     */
+    DependencyGraph(List<EnqueuedServiceDetails> nodes, int[][] dependencies, String[][] edgeDescriptions) {
+        this.nodes = nodes.toArray(EnqueuedServiceDetails[]::new);
+        this.dependencies = dependencies;
+        this.edgeDescriptions = edgeDescriptions;
+        this.ids = new HashMap<>();
+        for (int id = 0; id < this.nodes.length; id++) {
+            this.ids.put(this.nodes[id].getServiceDetails(), id);
+        }
+
+        this.dependants = this.invertEdges();
+        this.instantiationOrder = this.sortTopologically();
+
+        final List<EnqueuedServiceDetails> orderedNodes = new ArrayList<>(this.nodes.length);
+        for (int id : this.instantiationOrder) {
+            orderedNodes.add(this.nodes[id]);
+        }
+
+        this.orderedNodes = Collections.unmodifiableList(orderedNodes);
+    }
+
+    /**
+     * @return the number of services.
+     */
+    public int size() {
+        return this.nodes.length;
+    }
+
+    /**
+     * @param serviceDetails - a service or a bean.
+     * @return the id of the service (or the service that declares the bean) or -1 if it is not part of the graph.
+     */
+    public int getId(ServiceDetails serviceDetails) {
+        if (serviceDetails instanceof ServiceBeanDetails) {
+            serviceDetails = ((ServiceBeanDetails) serviceDetails).getRootService();
+        }
+
+        return this.ids.getOrDefault(serviceDetails, -1);
+    }
+
+    public ServiceDetails getService(int id) {
+        return this.nodes[id].getServiceDetails();
+    }
+
+    public EnqueuedServiceDetails getEnqueuedService(int id) {
+        return this.nodes[id];
+    }
+
+    /**
+     * @return ids of the services that the given service depends on.
+     */
+    public int[] getDependencyIds(int id) {
+        return this.dependencies[id].clone();
+    }
+
+    /**
+     * @return description of the aspect, constructor parameter or field that creates the given dependency.
+     */
+    public String getDependencyDescription(int id, int dependencyIndex) {
+        return this.edgeDescriptions[id][dependencyIndex];
+    }
+
+    /**
+     * @return ids of the services that depend on the given service.
+     */
+    public int[] getDependantIds(int id) {
+        return this.dependants[id].clone();
+    }
+
+    /**
+     * @return service ids sorted so that every service comes after its dependencies.
+     */
+    public int[] getInstantiationOrder() {
+        return this.instantiationOrder.clone();
+    }
+
+    /**
+     * @return the resolved services sorted so that every service comes after its dependencies.
+     */
+    public List<EnqueuedServiceDetails> getEnqueuedServices() {
+        return this.orderedNodes;
+    }
+
+    /**
+     * @param serviceDetails - a service or a bean.
+     * @return the services that the given service depends on directly.
+     */
+    public Collection<ServiceDetails> getDependencies(ServiceDetails serviceDetails) {
+        return this.getServices(serviceDetails, this.dependencies);
+    }
+
+    /**
+     * @param serviceDetails - a service or a bean.
+     * @return the services that depend directly on the given service.
+     */
+    public Collection<ServiceDetails> getDependants(ServiceDetails serviceDetails) {
+        return this.getServices(serviceDetails, this.dependants);
+    }
+
+    private Collection<ServiceDetails> getServices(ServiceDetails serviceDetails, int[][] edges) {
+        final int id = this.getId(serviceDetails);
+        if (id < 0) {
+            return List.of();
+        }
+
+        final List<ServiceDetails> services = new ArrayList<>(edges[id].length);
+        for (int otherId : edges[id]) {
+            services.add(this.nodes[otherId].getServiceDetails());
+        }
+
+        return services;
+    }
+
+    private int[][] invertEdges() {
+        final int[] dependantsCount = new int[this.nodes.length];
+        for (int[] serviceDependencies : this.dependencies) {
+            for (int dependency : serviceDependencies) {
+                dependantsCount[dependency]++;
+            }
+        }
+
+        final int[][] dependants = new int[this.nodes.length][];
+        for (int id = 0; id < this.nodes.length; id++) {
+            dependants[id] = new int[dependantsCount[id]];
+            dependantsCount[id] = 0;
+        }
+
+        for (int id = 0; id < this.nodes.length; id++) {
+            for (int dependency : this.dependencies[id]) {
+                dependants[dependency][dependantsCount[dependency]++] = id;
+            }
+        }
+
+        return dependants;
+    }
+
+    /**
+     * Iterative Tarjan strongly connected components search.
+     *
+     * @return service ids in instantiation order.
+     * @throws CircularDependencyException - with all circular dependencies if there are any.
+     */
+    private int[] sortTopologically() {
+        final int size = this.nodes.length;
+        final int[] indices = new int[size];
+        final int[] lowLinks = new int[size];
+        final int[] components = new int[size];
+        Arrays.fill(indices, NOT_VISITED);
+        int index = 0;
+        int componentCount = 0;
+
+        final boolean[] onStack = new boolean[size];
+        final int[] stack = new int[size];
+        int stackSize = 0;
+
+        final int[] trace = new int[size];
+        final int[] nextEdge = new int[size];
+
+        final int[] order = new int[size];
+        int orderSize = 0;
+
+        final List<int[]> cycles = new ArrayList<>();
+
+        for (int root = 0; root < size; root++) {
+            if (indices[root] != NOT_VISITED) {
+                continue;
+            }
+
+            int traceSize = 0;
+            trace[traceSize++] = root;
+            indices[root] = lowLinks[root] = index++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (traceSize > 0) {
+                final int current = trace[traceSize - 1];
+
+                if (nextEdge[current] < this.dependencies[current].length) {
+                    final int dependency = this.dependencies[current][nextEdge[current]++];
+
+                    if (indices[dependency] == NOT_VISITED) {
+                        indices[dependency] = lowLinks[dependency] = index++;
+                        stack[stackSize++] = dependency;
+                        onStack[dependency] = true;
+                        trace[traceSize++] = dependency;
+                    } else if (onStack[dependency]) {
+                        lowLinks[current] = Math.min(lowLinks[current], indices[dependency]);
+                    }
+
+                    continue;
+                }
+
+                traceSize--;
+                if (traceSize > 0) {
+                    final int parent = trace[traceSize - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[current]);
+                }
+
+                if (lowLinks[current] != indices[current]) {
+                    continue;
+                }
+
+                final int componentStart = this.indexOf(stack, stackSize, current);
+                final int[] component = Arrays.copyOfRange(stack, componentStart, stackSize);
+                for (int member : component) {
+                    onStack[member] = false;
+                    components[member] = componentCount;
+                }
+
+                stackSize = componentStart;
+                componentCount++;
+
+                if (component.length > 1 || this.dependsOnItself(current)) {
+                    cycles.add(component);
+                } else {
+                    order[orderSize++] = current;
+                }
+            }
+        }
+
+        if (!cycles.isEmpty()) {
+            throw new CircularDependencyException(this.createCyclesMessage(cycles, components));
+        }
+
+        return order;
+    }
+
+    private int indexOf(int[] stack, int stackSize, int id) {
+        int i = stackSize - 1;
+        while (stack[i] != id) {
+            i--;
+        }
+
+        return i;
+    }
+
+    private boolean dependsOnItself(int id) {
+        for (int dependency : this.dependencies[id]) {
+            if (dependency == id) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Lists every circular dependency with all of the dependencies that keep its services in the cycle.
+     *
+     * @param cycles     - services of each strongly connected component that is a cycle.
+     * @param components - component index of every service.
+     */
+    private String createCyclesMessage(List<int[]> cycles, int[] components) {
+        char arrowRight = '\u2192';
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Circular dependencies found! (%d)", cycles.size()));
+
+        for (int i = 0; i < cycles.size(); i++) {
+            final int[] cycle = cycles.get(i);
+            Arrays.sort(cycle);
+
+            sb.append(String.format("\nCycle %d between %d service(s):", i + 1, cycle.length));
+
+            for (int id : cycle) {
+                for (int edge = 0; edge < this.dependencies[id].length; edge++) {
+                    final int dependency = this.dependencies[id][edge];
+                    if (components[dependency] != components[id]) {
+                        continue;
+                    }
+
+                    sb.append(String.format("\n    %s %s %s via %s",
+                            this.getService(id).getServiceType().getName(),
+                            arrowRight,
+                            this.getService(dependency).getServiceType().getName(),
+                            this.edgeDescriptions[id][edge]
+                    ));
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+}
@@ -13,7 +13,6 @@ import org.example.model.DependencyParamCollection;
 import org.example.model.MethodAspectHandlerDto;
 import org.example.model.ResolvedServiceDto;
 import org.example.util.AliasFinder;
-import org.example.util.DependencyParamUtils;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -26,94 +25,144 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
     }
 
     /**
-     * Recursively iterate all services and resolve their dependencies by
-     * creating {@link DependencyParam} which is directly linked by the {@link ServiceDetails} of a given dependency.
+     * Resolves the dependencies of all services by creating {@link DependencyParam} which is directly linked
+     * by the {@link ServiceDetails} of a given dependency.
      * This will ensure that whenever the dependency is instantiated, the dependant service will instantly have access
      * to the instance.
+     * <p>
+     * Every service is resolved exactly once and becomes a node in the {@link DependencyGraph}
+     * which then sorts the services by their dependencies.
      *
      * @param serviceDetails -
-     * @return services sorted by their dependencies
+     * @return graph with the services sorted by their dependencies
      * @throws ServiceInstantiationException - if dependency is missing
      * @throws CircularDependencyException   - if resolution is impossible due to circular dependency
      */
     @Override
-    public List<EnqueuedServiceDetails> resolveDependencies(Collection<ServiceDetails> serviceDetails) {
-        final List<EnqueuedServiceDetails> resolvedDependencies = new ArrayList<>();
-
+    public DependencyGraph resolveDependencies(Collection<ServiceDetails> serviceDetails) {
         final List<ServiceDetails> allAvailableServices = new ArrayList<>(serviceDetails);
         allAvailableServices.addAll(this.configuration.getProvidedServices());
 
+        final ServiceCompatibilityIndex compatibilityIndex = new ServiceCompatibilityIndex(allAvailableServices);
+
+        final List<EnqueuedServiceDetails> nodes = new ArrayList<>();
+        final Map<ServiceDetails, Integer> ids = new HashMap<>();
         for (ServiceDetails service : allAvailableServices) {
-            this.resolveDependency(service, resolvedDependencies, allAvailableServices, new LinkedList<>());
+            this.getOrCreateNode(service, nodes, ids);
+        }
+
+        final List<int[]> dependencies = new ArrayList<>();
+        final List<String[]> edgeDescriptions = new ArrayList<>();
+
+        //Nodes can be added while iterating, in case a dependency was not given as an available service.
+        for (int id = 0; id < nodes.size(); id++) {
+            final Map<Integer, String> serviceDependencies = this.resolveDependency(
+                    nodes.get(id), compatibilityIndex, nodes, ids
+            );
+
+            dependencies.add(serviceDependencies.keySet().stream().mapToInt(Integer::intValue).toArray());
+            edgeDescriptions.add(serviceDependencies.values().toArray(String[]::new));
         }
 
-        return resolvedDependencies;
+        return new DependencyGraph(
+                nodes,
+                dependencies.toArray(int[][]::new),
+                edgeDescriptions.toArray(String[][]::new)
+        );
     }
 
     /**
-     * Checks aspects, constructor and field parameters for a given service and if there are any,
-     * recursively traverses them so that a dependency order is achieved.
+     * Resolves aspects, constructor and field parameters for a given service.
      * Every {@link DependencyParam} will be linked with a compatible {@link ServiceDetails}.
-     * Also, checks for circular is missing dependencies.
+     * Also, checks for missing dependencies.
      *
-     * @param service              -
-     * @param resolvedDependencies -
-     * @param serviceTrace         -
+     * @param enqueuedServiceDetails -
+     * @param compatibilityIndex     - index of all available services and beans.
+     * @return ids of the services that the given service depends on, in order of their first occurrence,
+     * mapped to the aspect, constructor parameter or field that creates the dependency.
      */
-    private void resolveDependency(ServiceDetails service,
-                                   List<EnqueuedServiceDetails> resolvedDependencies,
-                                   List<ServiceDetails> allAvailableServices,
-                                   LinkedList<ServiceDetails> serviceTrace) {
-        this.checkForCyclicDependency(service, serviceTrace);
-        final EnqueuedServiceDetails enqueuedServiceDetails = new EnqueuedServiceDetails(service);
-        if (resolvedDependencies.contains(enqueuedServiceDetails)) {
-            return;
-        }
+    private Map<Integer, String> resolveDependency(EnqueuedServiceDetails enqueuedServiceDetails,
+                                                   ServiceCompatibilityIndex compatibilityIndex,
+                                                   List<EnqueuedServiceDetails> nodes,
+                                                   Map<ServiceDetails, Integer> ids) {
+        final ServiceDetails service = enqueuedServiceDetails.getServiceDetails();
+        final Map<Integer, String> dependencies = new LinkedHashMap<>();
 
-        serviceTrace.addFirst(service);
         final Set<MethodAspectHandlerDto> aspects = service.getMethodAspectHandlers()
                 .values().stream()
                 .flatMap(Collection::stream)
                 .collect(Collectors.toSet());
 
         for (MethodAspectHandlerDto aspect : aspects) {
-            this.resolveDependency(aspect.getServiceDetails(), resolvedDependencies, allAvailableServices, serviceTrace);
+            dependencies.putIfAbsent(
+                    this.getOrCreateNode(aspect.getServiceDetails(), nodes, ids),
+                    String.format("aspect handler for @%s", aspect.getAnnotation().getName())
+            );
         }
 
-        final List<DependencyParam> dependencyParams = new ArrayList<>() {{
-            addAll(enqueuedServiceDetails.getConstructorParams());
-            addAll(enqueuedServiceDetails.getFieldDependencies());
-        }};
+        final List<DependencyParam> constructorParams = enqueuedServiceDetails.getConstructorParams();
+        for (int i = 0; i < constructorParams.size(); i++) {
+            this.resolveDependencyParam(
+                    service, constructorParams.get(i), String.format("constructor parameter %d", i),
+                    compatibilityIndex, nodes, ids, dependencies
+            );
+        }
 
-        for (DependencyParam dependencyParam : dependencyParams) {
-            final List<ServiceDetails> servicesToResolve;
-            try {
-                servicesToResolve = this.resolveParameter(dependencyParam, allAvailableServices);
-            } catch (Exception ex) {
-                throw new ServiceInstantiationException(String.format(
-                        "Error while resolving dependencies for service '%s'.", service.getServiceType()
-                ), ex);
-            }
+        final List<DependencyParam> fieldDependencies = enqueuedServiceDetails.getFieldDependencies();
+        for (int i = 0; i < fieldDependencies.size(); i++) {
+            this.resolveDependencyParam(
+                    service, fieldDependencies.get(i),
+                    String.format("field '%s'", service.getAutowireAnnotatedFields()[i].getName()),
+                    compatibilityIndex, nodes, ids, dependencies
+            );
+        }
 
-            for (ServiceDetails serviceToResolve : servicesToResolve) {
-                this.resolveDependency(serviceToResolve, resolvedDependencies, allAvailableServices, serviceTrace);
-            }
+        return dependencies;
+    }
+
+    private void resolveDependencyParam(ServiceDetails service,
+                                        DependencyParam dependencyParam,
+                                        String description,
+                                        ServiceCompatibilityIndex compatibilityIndex,
+                                        List<EnqueuedServiceDetails> nodes,
+                                        Map<ServiceDetails, Integer> ids,
+                                        Map<Integer, String> dependencies) {
+        final List<ServiceDetails> servicesToResolve;
+        try {
+            servicesToResolve = this.resolveParameter(dependencyParam, compatibilityIndex);
+        } catch (Exception ex) {
+            throw new ServiceInstantiationException(String.format(
+                    "Error while resolving dependencies for service '%s'.", service.getServiceType()
+            ), ex);
         }
 
-        serviceTrace.removeFirst();
-        resolvedDependencies.add(enqueuedServiceDetails);
+        for (ServiceDetails serviceToResolve : servicesToResolve) {
+            dependencies.putIfAbsent(
+                    this.getOrCreateNode(serviceToResolve, nodes, ids),
+                    String.format("%s (%s)", description, dependencyParam.getGenericDependencyType().getTypeName())
+            );
+        }
+    }
+
+    private int getOrCreateNode(ServiceDetails service,
+                                List<EnqueuedServiceDetails> nodes,
+                                Map<ServiceDetails, Integer> ids) {
+        return ids.computeIfAbsent(service, sd -> {
+            nodes.add(new EnqueuedServiceDetails(sd));
+            return nodes.size() - 1;
+        });
     }
 
     /**
      * Attempts to resolve dependency parameter by named instance, compatible class or dependency resolver.
      *
-     * @param dependencyParam      -
-     * @param allAvailableServices -
+     * @param dependencyParam    -
+     * @param compatibilityIndex - index of all available services and beans.
      * @return list of services that the given param relies on
      * @throws ServiceInstantiationException - if none of the options found a match and the parameter is not {@link Nullable}
      */
     private List<ServiceDetails> resolveParameter(DependencyParam dependencyParam,
-                                                  List<ServiceDetails> allAvailableServices) {
+                                                  ServiceCompatibilityIndex compatibilityIndex) {
         final Class<?> dependencyType = dependencyParam.getDependencyType();
 
         if (AliasFinder.isAnnotationPresent(dependencyParam.getAnnotations(), Nullable.class)) {
@@ -121,10 +170,9 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
         }
 
         if (dependencyParam.getInstanceName() != null) {
-            final ResolvedServiceDto resolvedNamedService = DependencyParamUtils.getNamedInstanceService(
+            final ResolvedServiceDto resolvedNamedService = compatibilityIndex.getNamedInstanceService(
                     dependencyType,
-                    dependencyParam.getInstanceName(),
-                    allAvailableServices
+                    dependencyParam.getInstanceName()
             );
 
             if (resolvedNamedService != null) {
@@ -145,10 +193,10 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
         if (dependencyParam instanceof DependencyParamCollection) {
             resolvedServices = this.loadCompatibleServiceDetails(
                     (DependencyParamCollection) dependencyParam,
-                    allAvailableServices
+                    compatibilityIndex
             );
         } else {
-            resolvedServices = this.loadCompatibleServiceDetails(dependencyParam, allAvailableServices);
+            resolvedServices = this.loadCompatibleServiceDetails(dependencyParam, compatibilityIndex);
         }
 
         if (!resolvedServices.isEmpty()) {
@@ -176,10 +224,8 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
     }
 
     private List<ServiceDetails> loadCompatibleServiceDetails(DependencyParam dependencyParam,
-                                                              List<ServiceDetails> allAvailableServices) {
-        final List<ResolvedServiceDto> compatibleServices = DependencyParamUtils.findAllCompatibleServices(
-                dependencyParam, allAvailableServices
-        );
+                                                              ServiceCompatibilityIndex compatibilityIndex) {
+        final List<ResolvedServiceDto> compatibleServices = compatibilityIndex.findAllCompatibleServices(dependencyParam);
 
         if (compatibleServices.size() > 1) {
             throw new ServiceInstantiationException(String.format(
@@ -202,10 +248,8 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
     }
 
     private List<ServiceDetails> loadCompatibleServiceDetails(DependencyParamCollection dependencyParam,
-                                                              List<ServiceDetails> allAvailableServices) {
-        final List<ResolvedServiceDto> compatibleServices = DependencyParamUtils.findAllCompatibleServices(
-                dependencyParam, allAvailableServices
-        );
+                                                              ServiceCompatibilityIndex compatibilityIndex) {
+        final List<ResolvedServiceDto> compatibleServices = compatibilityIndex.findAllCompatibleServices(dependencyParam);
 
         dependencyParam.setServiceDetails(compatibleServices.stream()
                 .map(ResolvedServiceDto::getActualService)
@@ -220,34 +264,4 @@ public class DependencyResolveServiceImpl implements DependencyResolveService {
                 .filter(dr -> dr.canResolve(dependencyParam))
                 .findFirst().orElse(null);
     }
-
-    private void checkForCyclicDependency(ServiceDetails service, LinkedList<ServiceDetails> serviceTrace) {
-        if (serviceTrace.isEmpty()) {
-            return;
-        }
-
-        if (!serviceTrace.contains(service)) {
-            return;
-        }
-
-        char arrowDown = '\u2193';
-        char arrowUp = '\u2191';
-
-        final StringBuilder sb = new StringBuilder();
-        sb.append("Circular dependency found!");
-        sb.append(String.format("\n%s<----%s", arrowDown, arrowUp));
-        sb.append(String.format("\n%s     %s %s", arrowDown, arrowUp, service.getServiceType()));
-
-        for (ServiceDetails trace : serviceTrace) {
-            if (service.equals(trace)) {
-                break;
-            }
-
-            sb.append(String.format("\n%s     %s %s", arrowDown, arrowUp, trace.getServiceType()));
-        }
-
-        sb.append(String.format("\n%s---->%s", arrowDown, arrowUp));
-
-        throw new CircularDependencyException(sb.toString());
-    }
 }
@@ -0,0 +1,156 @@
+package org.example.container;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Include / exclude package patterns compiled into a prefix trie of package segments.
+ * <p>
+ * A pattern matches the package itself and all of its sub packages (eg. "com.example" or "com.example.*").
+ * The most specific (longest) matching pattern decides whether a package is included.
+ * If no pattern matches, the package is included only if there are no include patterns.
+ * <p>
+ * Besides checking single packages, the trie can tell whether a package might contain included
+ * sub packages at all, which allows class locators to skip whole directory trees.
+ */
+public class PackageFilter {
+
+    private static final char PACKAGE_SEPARATOR = '.';
+
+    private final Node root;
+
+    private final boolean hasIncludes;
+
+    public PackageFilter(Collection<String> includedPackages, Collection<String> excludedPackages) {
+        this.root = new Node();
+
+        for (String excludedPackage : excludedPackages) {
+            this.insert(excludedPackage, false);
+        }
+
+        for (String includedPackage : includedPackages) {
+            this.insert(includedPackage, true);
+        }
+
+        this.hasIncludes = !includedPackages.isEmpty();
+    }
+
+    /**
+     * @return true if there are no patterns, meaning that every package is included.
+     */
+    public boolean isEmpty() {
+        return !this.hasIncludes && this.root.children.isEmpty() && this.root.included == null;
+    }
+
+    /**
+     * @param className - binary name of a class.
+     * @return true if the package of the class is included.
+     */
+    public boolean isClassIncluded(String className) {
+        final int lastSeparator = className.lastIndexOf(PACKAGE_SEPARATOR);
+        return this.isPackageIncluded(lastSeparator < 0 ? "" : className.substring(0, lastSeparator));
+    }
+
+    /**
+     * @param packageName - package name separated by dots, empty for the default package.
+     * @return true if classes from the given package should be scanned.
+     */
+    public boolean isPackageIncluded(String packageName) {
+        return this.match(packageName, false);
+    }
+
+    /**
+     * @param packageName - package name separated by dots, empty for the default package.
+     * @return true if the given package or any of its sub packages might be included.
+     */
+    public boolean canContainIncludedPackages(String packageName) {
+        return this.match(packageName, true);
+    }
+
+    private boolean match(String packageName, boolean includeSubPackages) {
+        Node node = this.root;
+        Boolean lastMatch = node.included;
+        int start = 0;
+
+        while (start < packageName.length()) {
+            int end = packageName.indexOf(PACKAGE_SEPARATOR, start);
+            if (end < 0) {
+                end = packageName.length();
+            }
+
+            node = node.children.get(packageName.substring(start, end));
+            if (node == null) {
+                return this.decide(lastMatch);
+            }
+
+            if (node.included != null) {
+                lastMatch = node.included;
+            }
+
+            start = end + 1;
+        }
+
+        if (includeSubPackages && node.hasIncludeBelow) {
+            return true;
+        }
+
+        return this.decide(lastMatch);
+    }
+
+    private boolean decide(Boolean lastMatch) {
+        if (lastMatch != null) {
+            return lastMatch;
+        }
+
+        return !this.hasIncludes;
+    }
+
+    private void insert(String pattern, boolean included) {
+        final String packageName = normalize(pattern);
+
+        Node node = this.root;
+        node.hasIncludeBelow |= included;
+
+        if (!packageName.isEmpty()) {
+            for (String segment : packageName.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+                node.hasIncludeBelow |= included;
+            }
+        }
+
+        node.included = included;
+    }
+
+    /**
+     * Removes wildcards and converts path separators, eg. "com/example/**" becomes "com.example".
+     */
+    private static String normalize(String pattern) {
+        String packageName = pattern.trim().replace('/', PACKAGE_SEPARATOR);
+
+        while (packageName.endsWith("*")) {
+            packageName = packageName.substring(0, packageName.length() - 1);
+        }
+
+        while (packageName.endsWith(String.valueOf(PACKAGE_SEPARATOR))) {
+            packageName = packageName.substring(0, packageName.length() - 1);
+        }
+
+        return packageName;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * True for include pattern, false for exclude pattern, null if no pattern ends at this node.
+         */
+        private Boolean included;
+
+        /**
+         * True if an include pattern ends at this node or at any of its descendants.
+         */
+        private boolean hasIncludeBelow;
+    }
+}
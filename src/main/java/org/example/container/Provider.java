@@ -0,0 +1,18 @@
+package org.example.container;
+
+import java.util.function.Supplier;
+
+/**
+ * Handle to a service that is looked up only once.
+ * <p>
+ * Returned by {@link DependencyContainerV2#getProvider(Class)} and injected into constructor parameters and
+ * autowired fields of type {@link Provider}. Dependencies of type {@link Supplier} are resolved like any other type,
+ * so services that implement {@link Supplier} can still be injected. Every call of {@link #get()} returns the current
+ * instance of a SINGLETON or PROXY service (including the new instance after a reload or an update)
+ * and a new instance of a PROTOTYPE service.
+ *
+ * @param <T> - type of the service.
+ */
+@FunctionalInterface
+public interface Provider<T> extends Supplier<T> {
+}
@@ -0,0 +1,342 @@
+package org.example.container;
+
+import org.example.exceptions.ClassLocationException;
+import org.example.model.CachedServiceDto;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache of the scanning results, used to speed up restarts when only a few classes have changed.
+ * <p>
+ * For each scanned class file the size, last modified time and content hash are stored together with the
+ * class name and whether the class is a service candidate. For each service the result of the reflection
+ * scanning is stored as {@link CachedServiceDto}.
+ * <p>
+ * A file is considered unchanged if its size and last modified time match, or if its content hash matches.
+ * A cached service is used only if every class in its hierarchy was verified as unchanged in this run.
+ * Services with classes that are not tracked (eg. located through a service index or a module,
+ * added as additional classes or extending a library class) are always scanned again.
+ * The whole cache is discarded if the scanning configuration (service and bean annotations) is different.
+ */
+public class ScanCache {
+
+    private static final int CACHE_FORMAT_VERSION = 2;
+
+    private final Path cacheFile;
+
+    private final String configurationSignature;
+
+    /**
+     * File entries from the previous run.
+     */
+    private final Map<String, FileEntry> previousFileEntries;
+
+    /**
+     * Services from the previous run.
+     */
+    private final Map<String, CachedServiceDto> previousServices;
+
+    private final Map<String, FileEntry> fileEntries;
+
+    private final Map<String, CachedServiceDto> services;
+
+    private final Set<String> unchangedClasses;
+
+    private final Set<String> changedClasses;
+
+    private ScanCache(Path cacheFile, String configurationSignature) {
+        this.cacheFile = cacheFile;
+        this.configurationSignature = configurationSignature;
+        this.previousFileEntries = new HashMap<>();
+        this.previousServices = new HashMap<>();
+        this.fileEntries = new ConcurrentHashMap<>();
+        this.services = new ConcurrentHashMap<>();
+        this.unchangedClasses = ConcurrentHashMap.newKeySet();
+        this.changedClasses = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Loads the cache from a given file.
+     * If the file is missing, unreadable or was created with a different configuration, an empty cache is returned.
+     *
+     * @param cacheFile              - the cache file.
+     * @param configurationSignature - value that changes when the scanning configuration changes.
+     * @return loaded cache.
+     */
+    public static ScanCache load(Path cacheFile, String configurationSignature) {
+        final ScanCache scanCache = new ScanCache(cacheFile, configurationSignature);
+        if (!Files.isRegularFile(cacheFile)) {
+            return scanCache;
+        }
+
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            scanCache.read(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            scanCache.previousFileEntries.clear();
+            scanCache.previousServices.clear();
+        }
+
+        return scanCache;
+    }
+
+    /**
+     * @param key - path of the class file.
+     * @return the entry from the previous run or null.
+     */
+    public FileEntry getFileEntry(String key) {
+        return this.previousFileEntries.get(key);
+    }
+
+    /**
+     * Stores an entry for a class file that was not changed since the previous run.
+     */
+    public void putUnchangedFileEntry(String key, FileEntry fileEntry) {
+        this.fileEntries.put(key, fileEntry);
+        this.unchangedClasses.add(fileEntry.getClassName());
+    }
+
+    /**
+     * Stores an entry for a class file that is new or was changed since the previous run.
+     */
+    public void putChangedFileEntry(String key, FileEntry fileEntry) {
+        this.fileEntries.put(key, fileEntry);
+        this.changedClasses.add(fileEntry.getClassName());
+    }
+
+    /**
+     * @param className - the name of a class.
+     * @return cached scanning result for the given service if every class in its hierarchy was verified
+     * as unchanged in this run or null.
+     */
+    public CachedServiceDto getCachedService(String className) {
+        final CachedServiceDto cachedService = this.previousServices.get(className);
+        if (cachedService == null) {
+            return null;
+        }
+
+        for (String hierarchyClassName : cachedService.getClassHierarchy()) {
+            if (!this.isUnchanged(hierarchyClassName)) {
+                return null;
+            }
+        }
+
+        return cachedService;
+    }
+
+    public void putCachedService(CachedServiceDto cachedService) {
+        this.services.put(cachedService.getClassName(), cachedService);
+    }
+
+    /**
+     * A class is unchanged only if its class file was verified in this run.
+     * Classes that were not tracked may have changed without the cache knowing, so they count as changed.
+     */
+    private boolean isUnchanged(String className) {
+        return this.unchangedClasses.contains(className) && !this.changedClasses.contains(className);
+    }
+
+    /**
+     * Writes the entries collected in this run to the cache file.
+     * Entries for files or services that were not seen in this run are dropped.
+     */
+    public void save() {
+        try {
+            final Path parent = this.cacheFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            final Path tempFile = Files.createTempFile(parent, this.cacheFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                this.write(outputStream);
+            }
+
+            Files.move(tempFile, this.cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ClassLocationException(String.format("Could not write scan cache '%s'.", this.cacheFile), e);
+        }
+    }
+
+    private void read(DataInputStream inputStream) throws IOException {
+        if (inputStream.readInt() != CACHE_FORMAT_VERSION
+                || !this.configurationSignature.equals(inputStream.readUTF())) {
+            return;
+        }
+
+        final int fileEntriesCount = inputStream.readInt();
+        for (int i = 0; i < fileEntriesCount; i++) {
+            final String key = inputStream.readUTF();
+            final FileEntry fileEntry = new FileEntry(
+                    inputStream.readLong(),
+                    inputStream.readLong(),
+                    inputStream.readLong(),
+                    inputStream.readUTF(),
+                    inputStream.readBoolean()
+            );
+
+            this.previousFileEntries.put(key, fileEntry);
+        }
+
+        final int servicesCount = inputStream.readInt();
+        for (int i = 0; i < servicesCount; i++) {
+            final CachedServiceDto cachedService = this.readService(inputStream);
+            this.previousServices.put(cachedService.getClassName(), cachedService);
+        }
+    }
+
+    private CachedServiceDto readService(DataInputStream inputStream) throws IOException {
+        final String className = inputStream.readUTF();
+        final String annotationType = readNullableString(inputStream);
+        final List<String> constructorParameterTypes = readStrings(inputStream);
+        final String instanceName = readNullableString(inputStream);
+        final String postConstructMethod = readNullableString(inputStream);
+        final String preDestroyMethod = readNullableString(inputStream);
+        final String scopeType = inputStream.readUTF();
+        final List<String> autowiredFields = readStrings(inputStream);
+
+        final int beansCount = inputStream.readInt();
+        final List<CachedServiceDto.CachedBeanDto> beans = new ArrayList<>(beansCount);
+        for (int i = 0; i < beansCount; i++) {
+            beans.add(new CachedServiceDto.CachedBeanDto(
+                    inputStream.readUTF(),
+                    inputStream.readUTF(),
+                    inputStream.readUTF(),
+                    readNullableString(inputStream)
+            ));
+        }
+
+        return new CachedServiceDto(
+                className, annotationType, constructorParameterTypes, instanceName, postConstructMethod,
+                preDestroyMethod, scopeType, autowiredFields, beans, readStrings(inputStream)
+        );
+    }
+
+    private void write(DataOutputStream outputStream) throws IOException {
+        outputStream.writeInt(CACHE_FORMAT_VERSION);
+        outputStream.writeUTF(this.configurationSignature);
+
+        outputStream.writeInt(this.fileEntries.size());
+        for (Map.Entry<String, FileEntry> entry : this.fileEntries.entrySet()) {
+            final FileEntry fileEntry = entry.getValue();
+            outputStream.writeUTF(entry.getKey());
+            outputStream.writeLong(fileEntry.getSize());
+            outputStream.writeLong(fileEntry.getLastModified());
+            outputStream.writeLong(fileEntry.getHash());
+            outputStream.writeUTF(fileEntry.getClassName());
+            outputStream.writeBoolean(fileEntry.isCandidate());
+        }
+
+        outputStream.writeInt(this.services.size());
+        for (CachedServiceDto cachedService : this.services.values()) {
+            outputStream.writeUTF(cachedService.getClassName());
+            writeNullableString(outputStream, cachedService.getAnnotationType());
+            writeStrings(outputStream, cachedService.getConstructorParameterTypes());
+            writeNullableString(outputStream, cachedService.getInstanceName());
+            writeNullableString(outputStream, cachedService.getPostConstructMethod());
+            writeNullableString(outputStream, cachedService.getPreDestroyMethod());
+            outputStream.writeUTF(cachedService.getScopeType());
+            writeStrings(outputStream, cachedService.getAutowiredFields());
+
+            outputStream.writeInt(cachedService.getBeans().size());
+            for (CachedServiceDto.CachedBeanDto bean : cachedService.getBeans()) {
+                outputStream.writeUTF(bean.getMethodName());
+                outputStream.writeUTF(bean.getAnnotationType());
+                outputStream.writeUTF(bean.getScopeType());
+                writeNullableString(outputStream, bean.getInstanceName());
+            }
+
+            writeStrings(outputStream, cachedService.getClassHierarchy());
+        }
+    }
+
+    private static String readNullableString(DataInputStream inputStream) throws IOException {
+        return inputStream.readBoolean() ? inputStream.readUTF() : null;
+    }
+
+    private static void writeNullableString(DataOutputStream outputStream, String value) throws IOException {
+        outputStream.writeBoolean(value != null);
+        if (value != null) {
+            outputStream.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream inputStream) throws IOException {
+        final int count = inputStream.readInt();
+        final List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(inputStream.readUTF());
+        }
+
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream outputStream, List<String> values) throws IOException {
+        outputStream.writeInt(values.size());
+        for (String value : values) {
+            outputStream.writeUTF(value);
+        }
+    }
+
+    /**
+     * Fingerprint and scanning result of a single class file.
+     */
+    public static class FileEntry {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final long hash;
+
+        private final String className;
+
+        private final boolean candidate;
+
+        public FileEntry(long size, long lastModified, long hash, String className, boolean candidate) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.className = className;
+            this.candidate = candidate;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public long getLastModified() {
+            return this.lastModified;
+        }
+
+        public long getHash() {
+            return this.hash;
+        }
+
+        public String getClassName() {
+            return this.className;
+        }
+
+        public boolean isCandidate() {
+            return this.candidate;
+        }
+
+        /**
+         * @return true if size and last modified time are the same.
+         */
+        public boolean isSameFile(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+
+        /**
+         * @return true if size and content hash are the same.
+         */
+        public boolean isSameContent(long size, long hash) {
+            return this.size == size && this.hash == hash;
+        }
+    }
+}
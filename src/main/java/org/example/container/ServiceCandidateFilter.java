@@ -0,0 +1,115 @@
+package org.example.container;
+
+import org.example.annotations.AliasFor;
+import org.example.configs.ScanningConfiguration;
+import org.example.exceptions.ClassLocationException;
+import org.example.model.ClassFileDetails;
+import org.example.util.AnnotationMetadata;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether a class file is a service candidate by looking only at the annotations
+ * read from its bytes.
+ * <p>
+ * A class is a candidate if it is annotated with one of the service annotations from {@link ScanningConfiguration}
+ * or with an annotation that is an {@link AliasFor} of one of them.
+ * Only candidate classes are loaded and they are not initialized.
+ */
+public class ServiceCandidateFilter {
+
+    private final ScanningConfiguration configuration;
+
+    /**
+     * Cache of annotation names that were already checked.
+     */
+    private final Map<String, Boolean> serviceAnnotationNames;
+
+    public ServiceCandidateFilter(ScanningConfiguration configuration) {
+        this.configuration = configuration;
+        this.serviceAnnotationNames = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param classFileDetails - details read from the class file.
+     * @return true if the class is annotated with a service annotation or its alias.
+     */
+    public boolean isCandidate(ClassFileDetails classFileDetails) {
+        if (!classFileDetails.isInstantiable()) {
+            return false;
+        }
+
+        for (String annotationName : classFileDetails.getAnnotationNames()) {
+            if (this.isServiceAnnotation(annotationName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Loads a class without initializing it.
+     *
+     * @param className - binary name of the class.
+     * @return the loaded class.
+     */
+    public Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, this.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new ClassLocationException(e.getMessage(), e);
+        }
+    }
+
+    private boolean isServiceAnnotation(String annotationName) {
+        final Boolean isServiceAnnotation = this.serviceAnnotationNames.get(annotationName);
+        if (isServiceAnnotation != null) {
+            return isServiceAnnotation;
+        }
+
+        final boolean result = this.checkServiceAnnotation(annotationName);
+        this.serviceAnnotationNames.put(annotationName, result);
+
+        return result;
+    }
+
+    /**
+     * Compares the annotation name with the configured service annotations.
+     * If there is no match, the annotation type is loaded in order to check for {@link AliasFor}.
+     * Annotation types are few compared to the scanned classes, so this is cheap.
+     */
+    private boolean checkServiceAnnotation(String annotationName) {
+        for (Class<? extends Annotation> serviceAnnotation : this.configuration.getServiceAnnotations()) {
+            if (serviceAnnotation.getName().equals(annotationName)) {
+                return true;
+            }
+        }
+
+        final Class<?> annotationType;
+        try {
+            annotationType = Class.forName(annotationName, false, this.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            //Annotations that are not on the classpath are ignored by the JVM as well.
+            return false;
+        }
+
+        if (!annotationType.isAnnotation()) {
+            return false;
+        }
+
+        for (Class<? extends Annotation> alias : AnnotationMetadata.of(annotationType.asSubclass(Annotation.class)).getAliases()) {
+            if (this.configuration.getServiceAnnotations().contains(alias)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private ClassLoader getClassLoader() {
+        return this.configuration.getClassLoader();
+    }
+}
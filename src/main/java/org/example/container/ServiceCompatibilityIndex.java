@@ -0,0 +1,166 @@
+package org.example.container;
+
+import org.example.instantiations.ServiceBeanDetails;
+import org.example.model.DependencyParam;
+import org.example.model.ResolvedServiceDto;
+import org.example.util.GenericsUtils;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of all services and beans that are available for dependency resolution.
+ * <p>
+ * Every service and bean is registered under its type, all of its super classes and interfaces
+ * (and those of its instance if one is already present) and under its lower-cased instance name.
+ * That way finding the compatible services for a dependency is a map lookup instead of
+ * iterating all services and beans for every constructor and field parameter.
+ * <p>
+ * Providers are kept in the order in which the services were given, beans right after their root service.
+ * <p>
+ * Dependencies with type arguments (eg. Repository&lt;Order&gt;) are matched against the type arguments of the
+ * providers (see {@link GenericsUtils#isAssignable}). The result is computed once per distinct generic type,
+ * so a generic dependency costs a single map lookup as well once its type has been seen.
+ */
+public class ServiceCompatibilityIndex {
+
+    private final Map<Class<?>, List<ResolvedServiceDto>> servicesByType;
+
+    private final Map<String, List<ResolvedServiceDto>> servicesByInstanceName;
+
+    private final Map<Type, List<ResolvedServiceDto>> servicesByGenericType;
+
+    public ServiceCompatibilityIndex(Collection<ServiceDetails> allServiceDetails) {
+        this.servicesByType = new HashMap<>();
+        this.servicesByInstanceName = new HashMap<>();
+        this.servicesByGenericType = new HashMap<>();
+
+        for (ServiceDetails service : allServiceDetails) {
+            this.register(new ResolvedServiceDto(service, service));
+
+            for (ServiceBeanDetails bean : service.getBeans()) {
+                this.register(new ResolvedServiceDto(service, bean));
+            }
+        }
+    }
+
+    /**
+     * Same result as {@link org.example.util.DependencyParamUtils#findAllCompatibleServices(DependencyParam, Collection)}.
+     *
+     * @param dependencyParam - the given dependency.
+     * @return services and beans which type is assignable to the dependency type (including its type arguments) and
+     * which instance name matches the one of the dependency if it has any.
+     */
+    public List<ResolvedServiceDto> findAllCompatibleServices(DependencyParam dependencyParam) {
+        final List<ResolvedServiceDto> services = this.findServicesByType(dependencyParam.getGenericDependencyType());
+
+        if (dependencyParam.getInstanceName() == null) {
+            return new ArrayList<>(services);
+        }
+
+        final List<ResolvedServiceDto> resolvedServices = new ArrayList<>();
+        for (ResolvedServiceDto service : services) {
+            if (dependencyParam.getInstanceName().equalsIgnoreCase(service.getActualService().getInstanceName())) {
+                resolvedServices.add(service);
+            }
+        }
+
+        return resolvedServices;
+    }
+
+    /**
+     * Same result as {@link org.example.util.DependencyParamUtils#getNamedInstanceService(Class, String, Collection)}.
+     *
+     * @param cls            - required type.
+     * @param nameOfInstance - required instance name.
+     * @return the first service or bean with the given name which type is assignable to the required type or null.
+     */
+    public ResolvedServiceDto getNamedInstanceService(Class<?> cls, String nameOfInstance) {
+        final List<ResolvedServiceDto> services = this.servicesByInstanceName.getOrDefault(
+                normalizeInstanceName(nameOfInstance), List.of()
+        );
+
+        for (ResolvedServiceDto service : services) {
+            if (cls.isAssignableFrom(service.getActualService().getServiceType())) {
+                return service;
+            }
+        }
+
+        return null;
+    }
+
+    private List<ResolvedServiceDto> findServicesByType(Type type) {
+        if (type instanceof Class) {
+            return this.servicesByType.getOrDefault(type, List.of());
+        }
+
+        return this.servicesByGenericType.computeIfAbsent(type, genericType -> {
+            final List<ResolvedServiceDto> services = new ArrayList<>();
+            for (ResolvedServiceDto service : this.servicesByType.getOrDefault(GenericsUtils.getRawClass(genericType), List.of())) {
+                if (isAssignable(genericType, service.getActualService())) {
+                    services.add(service);
+                }
+            }
+
+            return services;
+        });
+    }
+
+    /**
+     * Provided services may be registered with a super type of their instance, so the class of the instance is checked too.
+     */
+    private static boolean isAssignable(Type genericType, ServiceDetails serviceDetails) {
+        if (GenericsUtils.isAssignable(genericType, serviceDetails.getGenericServiceType())) {
+            return true;
+        }
+
+        return serviceDetails.getActualInstance() != null
+                && GenericsUtils.isAssignable(genericType, serviceDetails.getActualInstance().getClass());
+    }
+
+    private void register(ResolvedServiceDto resolvedService) {
+        final ServiceDetails actualService = resolvedService.getActualService();
+
+        final Set<Class<?>> compatibleTypes = new LinkedHashSet<>();
+        collectSupertypes(actualService.getServiceType(), compatibleTypes);
+        if (actualService.getActualInstance() != null) {
+            collectSupertypes(actualService.getActualInstance().getClass(), compatibleTypes);
+        }
+
+        for (Class<?> compatibleType : compatibleTypes) {
+            this.servicesByType.computeIfAbsent(compatibleType, type -> new ArrayList<>()).add(resolvedService);
+        }
+
+        if (actualService.getInstanceName() != null) {
+            this.servicesByInstanceName.computeIfAbsent(
+                    normalizeInstanceName(actualService.getInstanceName()), name -> new ArrayList<>()
+            ).add(resolvedService);
+        }
+    }
+
+    private static void collectSupertypes(Class<?> cls, Set<Class<?>> supertypes) {
+        if (cls == null || !supertypes.add(cls)) {
+            return;
+        }
+
+        collectSupertypes(cls.getSuperclass(), supertypes);
+        for (Class<?> anInterface : cls.getInterfaces()) {
+            collectSupertypes(anInterface, supertypes);
+        }
+
+        if (cls.isInterface()) {
+            supertypes.add(Object.class);
+        }
+    }
+
+    private static String normalizeInstanceName(String instanceName) {
+        return instanceName.toLowerCase(Locale.ROOT);
+    }
+}
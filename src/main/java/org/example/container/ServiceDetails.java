@@ -3,7 +3,10 @@ package org.example.container;
 
 
 import org.example.annotations.ScopeType;
+import org.example.instantiations.InstanceArgumentsPlan;
+import org.example.instantiations.InstantiationStrategy;
 import org.example.instantiations.ServiceBeanDetails;
+import org.example.instantiations.ServiceInstanceFactory;
 import org.example.model.DependencyParam;
 import org.example.model.MethodAspectHandlerDto;
 import org.example.util.ObjectInstantiationUtils;
@@ -12,7 +15,10 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Simple POJO class that holds information about a given class.
@@ -46,20 +52,36 @@ public class ServiceDetails {
     private String instanceName;
 
     /**
-     * Service instance.
+     * Service instance, replaced by the container on update and reload while other threads may be reading it.
      */
-    private Object instance;
+    private volatile Object instance;
 
     /**
      * Flag used for PROTOTYPE scoped service to ensure instance is not left unused.
      */
-    protected boolean instanceRequested;
+    private boolean instanceRequested;
 
     /**
      * Proxy instance that will be injected into services instead of actual instance.
      */
     private Object proxyInstance;
 
+    /**
+     * Creates the instance of a lazy service on first access.
+     * Null if the service is not lazy or once the instance has been created.
+     */
+    private volatile Runnable lazyInitialization;
+
+    /**
+     * Guards {@link #lazyInitialization}, not this service, which is locked by {@link #claimInitialInstance()}.
+     */
+    private final Object lazyInitializationLock = new Object();
+
+    /**
+     * Proxy which is injected instead of a lazy service that is not instantiated yet or null.
+     */
+    private Object lazyProxyInstance;
+
     /**
      * Reference to the post construct method if any.
      */
@@ -97,6 +119,34 @@ public class ServiceDetails {
 
     private final Map<Method, List<MethodAspectHandlerDto>> methodAspectHandlers = new HashMap<>();
 
+    /**
+     * Creates the {@link #instanceFactory}, set from the configuration when the service is instantiated.
+     */
+    private volatile InstantiationStrategy instantiationStrategy = InstantiationStrategy.GENERATED_BYTECODE;
+
+    /**
+     * Factory that creates the instances of this service, created on first use.
+     */
+    private volatile ServiceInstanceFactory instanceFactory;
+
+    /**
+     * Precomputed arguments for new instances of this service, created on first use.
+     * Until then it holds a token that is replaced whenever the plan is dropped,
+     * so that a plan created before it was dropped (eg. with a replaced instance) is never stored.
+     */
+    private final AtomicReference<Object> instanceArgumentsPlan = new AtomicReference<>(new Object());
+
+    /**
+     * Completes once the post construct method of the initial instance (and the stage it returned) has completed
+     * and the beans of the service are created.
+     */
+    private volatile CompletableFuture<Void> readiness = CompletableFuture.completedFuture(null);
+
+    /**
+     * Dense id of the service within its container, -1 until the container is initialized.
+     */
+    private int serviceId = -1;
+
     protected ServiceDetails() {
 
     }
@@ -122,6 +172,13 @@ public class ServiceDetails {
         return this.serviceType;
     }
 
+    /**
+     * @return the type including its type arguments, used to match generic dependencies.
+     */
+    public Type getGenericServiceType() {
+        return this.serviceType;
+    }
+
     protected void setServiceType(Class<?> serviceType) {
         this.serviceType = serviceType;
     }
@@ -140,6 +197,7 @@ public class ServiceDetails {
 
     public void setTargetConstructor(Constructor<?> targetConstructor) {
         this.targetConstructor = targetConstructor;
+        this.instanceFactory = null;
     }
 
     public String getInstanceName() {
@@ -155,13 +213,14 @@ public class ServiceDetails {
     }
 
     public Object getInstance() {
+        this.ensureInstantiated();
+
         if (this.getScopeType() == ScopeType.PROTOTYPE) {
             if (this.instance == null) {
                 return null;
             }
 
-            if (!this.instanceRequested) {
-                this.instanceRequested = true;
+            if (this.claimInitialInstance()) {
                 return this.instance;
             }
 
@@ -175,6 +234,90 @@ public class ServiceDetails {
         return this.instance;
     }
 
+    /**
+     * @param dependencyType - the type of the injection point.
+     * @return the lazy proxy if this service is not instantiated yet and the proxy is of the required type,
+     * otherwise the instance.
+     */
+    public Object getInjectableInstance(Class<?> dependencyType) {
+        if (this.lazyInitialization != null && dependencyType.isInstance(this.lazyProxyInstance)) {
+            return this.lazyProxyInstance;
+        }
+
+        return this.getInstance();
+    }
+
+    /**
+     * Makes the service lazy. The given initialization will run on the first access of the instance.
+     *
+     * @param lazyInitialization - creates the instance of the service and sets its readiness.
+     * @param lazyProxyInstance  - proxy to inject until then or null.
+     */
+    public void setLazyInitialization(Runnable lazyInitialization, Object lazyProxyInstance) {
+        this.lazyProxyInstance = lazyProxyInstance;
+        this.lazyInitialization = lazyInitialization;
+    }
+
+    public boolean isLazyInitializationPending() {
+        return this.lazyInitialization != null;
+    }
+
+    /**
+     * Runs the lazy initialization if it has not run yet and waits for the post construct method.
+     * Double-checked, so that only the first accesses of a lazy service lock and only on this service.
+     * <p>
+     * The post construct method is waited for without holding the lock, so that it may access this service.
+     * The thread that ran the initialization always waits, other threads only if there is no instance yet
+     * (eg. a bean of a lazy service) or the post construct method has already completed (to see its failure).
+     */
+    public void ensureInstantiated() {
+        if (this.lazyInitialization == null) {
+            return;
+        }
+
+        final boolean initialized = this.startLazyInitialization();
+        if (initialized || this.instance == null || this.readiness.isDone()) {
+            ObjectInstantiationUtils.awaitPostConstruct(this.readiness);
+        }
+    }
+
+    /**
+     * Runs the lazy initialization if it has not run yet, without waiting for the post construct method.
+     * The initialization is expected to set the readiness of the service.
+     *
+     * @return true if the initialization ran in this call.
+     */
+    public boolean startLazyInitialization() {
+        if (this.lazyInitialization == null) {
+            return false;
+        }
+
+        synchronized (this.lazyInitializationLock) {
+            final Runnable lazyInitialization = this.lazyInitialization;
+            if (lazyInitialization == null) {
+                return false;
+            }
+
+            lazyInitialization.run();
+            this.lazyInitialization = null;
+            return true;
+        }
+    }
+
+    /**
+     * Services can be instantiated in parallel, so only one dependant may get the initial PROTOTYPE instance.
+     *
+     * @return true the first time it is called.
+     */
+    protected synchronized boolean claimInitialInstance() {
+        if (this.instanceRequested) {
+            return false;
+        }
+
+        this.instanceRequested = true;
+        return true;
+    }
+
     public void setInstance(Object instance) {
         this.instance = instance;
     }
@@ -201,6 +344,7 @@ public class ServiceDetails {
 
     public void setPostConstructMethod(Method postConstructMethod) {
         this.postConstructMethod = postConstructMethod;
+        this.instanceFactory = null;
     }
 
     public Method getPreDestroyMethod() {
@@ -233,6 +377,7 @@ public class ServiceDetails {
 
     public void setAutowireAnnotatedFields(Field[] autowireAnnotatedFields) {
         this.autowireAnnotatedFields = autowireAnnotatedFields;
+        this.instanceFactory = null;
     }
 
     public LinkedList<DependencyParam> getResolvedConstructorParams() {
@@ -241,6 +386,7 @@ public class ServiceDetails {
 
     public void setResolvedConstructorParams(LinkedList<DependencyParam> resolvedConstructorParams) {
         this.resolvedConstructorParams = resolvedConstructorParams;
+        this.setInstanceArgumentsPlan(null);
     }
 
     public LinkedList<DependencyParam> getResolvedFields() {
@@ -249,6 +395,70 @@ public class ServiceDetails {
 
     public void setResolvedFields(LinkedList<DependencyParam> resolvedFields) {
         this.resolvedFields = resolvedFields;
+        this.setInstanceArgumentsPlan(null);
+    }
+
+    public InstantiationStrategy getInstantiationStrategy() {
+        return this.instantiationStrategy;
+    }
+
+    public void setInstantiationStrategy(InstantiationStrategy instantiationStrategy) {
+        this.instantiationStrategy = instantiationStrategy;
+        this.instanceFactory = null;
+    }
+
+    public ServiceInstanceFactory getInstanceFactory() {
+        return this.instanceFactory;
+    }
+
+    public void setInstanceFactory(ServiceInstanceFactory instanceFactory) {
+        this.instanceFactory = instanceFactory;
+    }
+
+    /**
+     * @return the stored plan, or a new one which is stored unless the plan was dropped while it was created.
+     */
+    public InstanceArgumentsPlan getInstanceArgumentsPlan() {
+        final Object current = this.instanceArgumentsPlan.get();
+        if (current instanceof InstanceArgumentsPlan) {
+            return (InstanceArgumentsPlan) current;
+        }
+
+        final InstanceArgumentsPlan instanceArgumentsPlan = InstanceArgumentsPlan.create(this);
+        this.instanceArgumentsPlan.compareAndSet(current, instanceArgumentsPlan);
+
+        return instanceArgumentsPlan;
+    }
+
+    /**
+     * @param instanceArgumentsPlan - the plan or null to drop the current one.
+     */
+    public void setInstanceArgumentsPlan(InstanceArgumentsPlan instanceArgumentsPlan) {
+        this.instanceArgumentsPlan.set(instanceArgumentsPlan == null ? new Object() : instanceArgumentsPlan);
+    }
+
+    public int getServiceId() {
+        return this.serviceId;
+    }
+
+    public void setServiceId(int serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    /**
+     * @return true if every lookup of this service returns the same instance,
+     * ie. it is not a PROTOTYPE and not a lazy service that is not instantiated yet.
+     */
+    public boolean isInstanceShared() {
+        return this.getScopeType() != ScopeType.PROTOTYPE && this.lazyInitialization == null;
+    }
+
+    public CompletableFuture<Void> getReadiness() {
+        return this.readiness;
+    }
+
+    public void setReadiness(CompletableFuture<Void> readiness) {
+        this.readiness = readiness;
     }
 
     public Map<Method, List<MethodAspectHandlerDto>> getMethodAspectHandlers() {
@@ -0,0 +1,44 @@
+package org.example.container;
+
+import org.example.annotations.ScopeType;
+import org.example.instantiations.ServiceBeanDetails;
+import org.example.util.ObjectInstantiationUtils;
+
+/**
+ * {@link Provider} bound to a single service.
+ * <p>
+ * The service is resolved once, when the provider is created.
+ * Since it keeps the {@link ServiceDetails} and not the instance, it stays valid when the instance is replaced.
+ * PROTOTYPE instances are created directly with the factory of the service.
+ *
+ * @param <T> - type of the service.
+ */
+public class ServiceProvider<T> implements Provider<T> {
+
+    private final ServiceDetails serviceDetails;
+
+    private final boolean prototype;
+
+    public ServiceProvider(ServiceDetails serviceDetails) {
+        this.serviceDetails = serviceDetails;
+        this.prototype = serviceDetails.getScopeType() == ScopeType.PROTOTYPE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get() {
+        if (!this.prototype) {
+            return (T) this.serviceDetails.getInstance();
+        }
+
+        if (this.serviceDetails instanceof ServiceBeanDetails) {
+            return (T) ObjectInstantiationUtils.createNewInstance((ServiceBeanDetails) this.serviceDetails);
+        }
+
+        return (T) ObjectInstantiationUtils.createNewInstance(this.serviceDetails);
+    }
+
+    public ServiceDetails getServiceDetails() {
+        return this.serviceDetails;
+    }
+}
@@ -0,0 +1,287 @@
+package org.example.container;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the services and beans of a {@link DependencyContainerV2}, built once when the container is initialized.
+ * The index is immutable, when a service gets an instance of another type {@link #withInstance} creates a copy.
+ * <p>
+ * Every service and bean is registered under its type, all of its super classes and interfaces
+ * (and those of its instance), under its mapping annotation and under its lower-cased instance name.
+ * The results of all queries are precomputed immutable lists, so every query is one or two map lookups.
+ * The lookup of a single service by type goes through a {@link ClassValue} that maps the type to the
+ * {@link ServiceDetails#getServiceId()} of the service, which is its position in the given services.
+ * Types, annotations and names that no service matches are not in the maps and get the shared empty list,
+ * so misses are as cheap as hits.
+ * <p>
+ * Services are kept in the order in which they were given, so the first one is the same as the first match
+ * of {@link org.example.util.DependencyParamUtils#isServiceCompatible}.
+ */
+public class ServiceRegistryIndex {
+
+    /**
+     * Services by their id.
+     */
+    private final ServiceDetails[] services;
+
+    private final ClassValue<Integer> serviceIds = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            final ServiceDetails serviceDetails = ServiceRegistryIndex.this.servicesByType.get(type);
+            return serviceDetails == null ? -1 : serviceDetails.getServiceId();
+        }
+    };
+
+    /**
+     * Services which type or instance is assignable to the key.
+     */
+    private final Map<Class<?>, ServiceDetails> servicesByType;
+
+    /**
+     * Services which type is assignable to the key, see {@link DependencyContainerV2#getImplementations}.
+     */
+    private final Map<Class<?>, List<ServiceDetails>> implementationsByType;
+
+    private final Map<Class<? extends Annotation>, List<ServiceDetails>> servicesByAnnotation;
+
+    /**
+     * First service for each normalized instance name and each type that the service is assignable to.
+     */
+    private final Map<String, Map<Class<?>, ServiceDetails>> servicesByInstanceName;
+
+    /**
+     * @param servicesAndBeans - services and beans with their ids already assigned (see {@link #assignServiceIds}).
+     */
+    public ServiceRegistryIndex(Collection<ServiceDetails> servicesAndBeans) {
+        this.services = servicesAndBeans.toArray(new ServiceDetails[0]);
+
+        final Map<Class<?>, ServiceDetails> servicesByType = new HashMap<>();
+        final Map<Class<?>, List<ServiceDetails>> implementationsByType = new HashMap<>();
+        final Map<Class<? extends Annotation>, List<ServiceDetails>> servicesByAnnotation = new HashMap<>();
+        final Map<String, Map<Class<?>, ServiceDetails>> servicesByInstanceName = new HashMap<>();
+
+        for (ServiceDetails serviceDetails : servicesAndBeans) {
+            final Set<Class<?>> implementedTypes = new LinkedHashSet<>();
+            collectSupertypes(serviceDetails.getServiceType(), implementedTypes);
+
+            final Set<Class<?>> compatibleTypes = new LinkedHashSet<>(implementedTypes);
+            if (serviceDetails.getActualInstance() != null) {
+                collectSupertypes(serviceDetails.getActualInstance().getClass(), compatibleTypes);
+            }
+
+            for (Class<?> implementedType : implementedTypes) {
+                implementationsByType.computeIfAbsent(implementedType, type -> new ArrayList<>()).add(serviceDetails);
+            }
+
+            for (Class<?> compatibleType : compatibleTypes) {
+                servicesByType.putIfAbsent(compatibleType, serviceDetails);
+            }
+
+            if (serviceDetails.getAnnotation() != null) {
+                servicesByAnnotation.computeIfAbsent(
+                        serviceDetails.getAnnotation().annotationType(), type -> new ArrayList<>()
+                ).add(serviceDetails);
+            }
+
+            if (serviceDetails.getInstanceName() != null) {
+                final Map<Class<?>, ServiceDetails> namedServices = servicesByInstanceName.computeIfAbsent(
+                        normalizeInstanceName(serviceDetails.getInstanceName()), name -> new HashMap<>()
+                );
+
+                for (Class<?> compatibleType : compatibleTypes) {
+                    namedServices.putIfAbsent(compatibleType, serviceDetails);
+                }
+            }
+        }
+
+        this.servicesByType = Map.copyOf(servicesByType);
+        this.implementationsByType = copyOfLists(implementationsByType);
+        this.servicesByAnnotation = copyOfLists(servicesByAnnotation);
+
+        final Map<String, Map<Class<?>, ServiceDetails>> immutableServicesByInstanceName = new HashMap<>();
+        servicesByInstanceName.forEach((name, namedServices) -> immutableServicesByInstanceName.put(name, Map.copyOf(namedServices)));
+        this.servicesByInstanceName = Map.copyOf(immutableServicesByInstanceName);
+    }
+
+    private ServiceRegistryIndex(ServiceDetails[] services,
+                                 Map<Class<?>, ServiceDetails> servicesByType,
+                                 Map<Class<?>, List<ServiceDetails>> implementationsByType,
+                                 Map<Class<? extends Annotation>, List<ServiceDetails>> servicesByAnnotation,
+                                 Map<String, Map<Class<?>, ServiceDetails>> servicesByInstanceName) {
+        this.services = services;
+        this.servicesByType = servicesByType;
+        this.implementationsByType = implementationsByType;
+        this.servicesByAnnotation = servicesByAnnotation;
+        this.servicesByInstanceName = servicesByInstanceName;
+    }
+
+    /**
+     * Only the lookups of the types that the old or the new instance is assignable to, but the service type is not,
+     * can have a different result. Those are recomputed, the results of all other types are shared with this index.
+     *
+     * @param serviceDetails - service that already has its new instance.
+     * @param oldInstance    - the previous instance of the service or null.
+     * @return this index if no lookup is affected, otherwise an updated copy.
+     */
+    public ServiceRegistryIndex withInstance(ServiceDetails serviceDetails, Object oldInstance) {
+        final Set<Class<?>> affectedTypes = new LinkedHashSet<>();
+        if (oldInstance != null) {
+            collectSupertypes(oldInstance.getClass(), affectedTypes);
+        }
+
+        if (serviceDetails.getActualInstance() != null) {
+            collectSupertypes(serviceDetails.getActualInstance().getClass(), affectedTypes);
+        }
+
+        final Set<Class<?>> serviceTypes = new LinkedHashSet<>();
+        collectSupertypes(serviceDetails.getServiceType(), serviceTypes);
+        affectedTypes.removeAll(serviceTypes);
+
+        if (affectedTypes.isEmpty()) {
+            return this;
+        }
+
+        final Map<Class<?>, ServiceDetails> servicesByType = new HashMap<>(this.servicesByType);
+        for (Class<?> affectedType : affectedTypes) {
+            putOrRemove(servicesByType, affectedType, this.findFirstCompatibleService(affectedType, null));
+        }
+
+        Map<String, Map<Class<?>, ServiceDetails>> servicesByInstanceName = this.servicesByInstanceName;
+        if (serviceDetails.getInstanceName() != null) {
+            final String instanceName = normalizeInstanceName(serviceDetails.getInstanceName());
+            final Map<Class<?>, ServiceDetails> namedServices = new HashMap<>(
+                    this.servicesByInstanceName.getOrDefault(instanceName, Map.of())
+            );
+
+            for (Class<?> affectedType : affectedTypes) {
+                putOrRemove(namedServices, affectedType, this.findFirstCompatibleService(affectedType, instanceName));
+            }
+
+            servicesByInstanceName = new HashMap<>(this.servicesByInstanceName);
+            servicesByInstanceName.put(instanceName, Map.copyOf(namedServices));
+            servicesByInstanceName = Map.copyOf(servicesByInstanceName);
+        }
+
+        return new ServiceRegistryIndex(
+                this.services,
+                Map.copyOf(servicesByType),
+                this.implementationsByType,
+                this.servicesByAnnotation,
+                servicesByInstanceName
+        );
+    }
+
+    /**
+     * @param normalizedInstanceName - required instance name or null for any.
+     * @return the first service which type or current instance is assignable to the given type.
+     */
+    private ServiceDetails findFirstCompatibleService(Class<?> type, String normalizedInstanceName) {
+        for (ServiceDetails serviceDetails : this.services) {
+            if (normalizedInstanceName != null && (serviceDetails.getInstanceName() == null
+                    || !normalizedInstanceName.equals(normalizeInstanceName(serviceDetails.getInstanceName())))) {
+                continue;
+            }
+
+            if (type.isAssignableFrom(serviceDetails.getServiceType()) || type.isInstance(serviceDetails.getActualInstance())) {
+                return serviceDetails;
+            }
+        }
+
+        return null;
+    }
+
+    private static void putOrRemove(Map<Class<?>, ServiceDetails> services, Class<?> type, ServiceDetails serviceDetails) {
+        if (serviceDetails == null) {
+            services.remove(type);
+        } else {
+            services.put(type, serviceDetails);
+        }
+    }
+
+    /**
+     * @param serviceType  - required type.
+     * @param instanceName - required instance name (case insensitive) or null.
+     * @return the first service which type or instance is assignable to the given type or null.
+     */
+    public ServiceDetails findServiceDetails(Class<?> serviceType, String instanceName) {
+        if (instanceName == null) {
+            final int serviceId = this.getServiceId(serviceType);
+            return serviceId < 0 ? null : this.services[serviceId];
+        }
+
+        final Map<Class<?>, ServiceDetails> namedServices = this.servicesByInstanceName.get(
+                normalizeInstanceName(instanceName)
+        );
+
+        return namedServices == null ? null : namedServices.get(serviceType);
+    }
+
+    /**
+     * @return id of the first service which type or instance is assignable to the given type, -1 if there is none.
+     */
+    public int getServiceId(Class<?> serviceType) {
+        return this.serviceIds.get(serviceType);
+    }
+
+    public int size() {
+        return this.services.length;
+    }
+
+    /**
+     * Assigns every service its position as id.
+     */
+    public static void assignServiceIds(Collection<ServiceDetails> servicesAndBeans) {
+        int serviceId = 0;
+        for (ServiceDetails serviceDetails : servicesAndBeans) {
+            serviceDetails.setServiceId(serviceId++);
+        }
+    }
+
+    /**
+     * @return immutable list of the services which type is assignable to the given type.
+     */
+    public List<ServiceDetails> getImplementations(Class<?> serviceType) {
+        return this.implementationsByType.getOrDefault(serviceType, List.of());
+    }
+
+    /**
+     * @return immutable list of the services which are mapped with the given annotation.
+     */
+    public List<ServiceDetails> getServicesByAnnotation(Class<? extends Annotation> annotationType) {
+        return this.servicesByAnnotation.getOrDefault(annotationType, List.of());
+    }
+
+    private static <K> Map<K, List<ServiceDetails>> copyOfLists(Map<K, List<ServiceDetails>> lists) {
+        final Map<K, List<ServiceDetails>> immutableLists = new HashMap<>();
+        lists.forEach((key, list) -> immutableLists.put(key, List.copyOf(list)));
+
+        return Map.copyOf(immutableLists);
+    }
+
+    private static void collectSupertypes(Class<?> cls, Set<Class<?>> supertypes) {
+        if (cls == null || !supertypes.add(cls)) {
+            return;
+        }
+
+        collectSupertypes(cls.getSuperclass(), supertypes);
+        for (Class<?> anInterface : cls.getInterfaces()) {
+            collectSupertypes(anInterface, supertypes);
+        }
+
+        if (cls.isInterface()) {
+            supertypes.add(Object.class);
+        }
+    }
+
+    private static String normalizeInstanceName(String instanceName) {
+        return instanceName.toLowerCase(Locale.ROOT);
+    }
+}
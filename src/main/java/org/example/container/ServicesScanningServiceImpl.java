@@ -8,6 +8,7 @@ import org.example.exceptions.ClassLocationException;
 import org.example.handler.ServiceMethodAspectHandler;
 import org.example.instantiations.ServiceBeanDetails;
 import org.example.middleware.ServiceDetailsCreated;
+import org.example.model.CachedServiceDto;
 import org.example.model.MethodAspectHandlerDto;
 import org.example.util.AliasFinder;
 import org.example.util.AnnotationUtils;
@@ -16,9 +17,12 @@ import org.example.util.GenericsUtils;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 
 /**
  * {@link ServicesScanningService} implementation.
@@ -27,19 +31,40 @@ import java.util.*;
  */
 public class ServicesScanningServiceImpl implements ServicesScanningService {
 
+    private static final String MEMBER_SEPARATOR = "#";
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class
+    );
+
     /**
      * Configuration containing annotations provided by the client.
      */
     private final ScanningConfiguration configuration;
 
+    /**
+     * Scan cache or null if caching is disabled.
+     */
+    private final ScanCache scanCache;
+
     public ServicesScanningServiceImpl(ScanningConfiguration configuration) {
+        this(configuration, null);
+    }
+
+    public ServicesScanningServiceImpl(ScanningConfiguration configuration, ScanCache scanCache) {
         this.configuration = configuration;
+        this.scanCache = scanCache;
         this.init();
     }
 
     /**
      * Iterates scanned classes with @{@link Service} or user specified annotation
      * and creates a {@link ServiceDetails} object with the collected information.
+     * <p>
+     * The reflective scanning of the classes runs in parallel on the common fork-join pool.
+     * The results are merged in the order of the service classes, so aspect handlers and
+     * {@link ServiceDetailsCreated} callbacks are processed sequentially in the same order as before.
      *
      * @param locatedClasses given set of classes.
      * @return set or services and their collected details.
@@ -51,24 +76,13 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         final Set<ServiceDetails> serviceDetailsStorage = new HashSet<>();
         final Map<Class<? extends Annotation>, ServiceDetails> aspectHandlerServices = new HashMap<>();
 
-        for (Map.Entry<Class<?>, Annotation> serviceAnnotationEntry : onlyServiceClasses.entrySet()) {
-            final Class<?> cls = serviceAnnotationEntry.getKey();
-            final Annotation annotation = serviceAnnotationEntry.getValue();
-
-            final ServiceDetails serviceDetails = new ServiceDetails(
-                    cls,
-                    annotation,
-                    this.findSuitableConstructor(cls),
-                    this.findInstanceName(cls.getDeclaredAnnotations()),
-                    this.findVoidMethodWithZeroParamsAndAnnotations(PostConstruct.class, cls),
-                    this.findVoidMethodWithZeroParamsAndAnnotations(PreDestroy.class, cls),
-                    this.findScope(cls),
-                    this.findAutowireAnnotatedFields(cls, new ArrayList<>()).toArray(new Field[0])
-            );
+        final List<ServiceDetails> createdServices = new ArrayList<>(onlyServiceClasses.entrySet())
+                .parallelStream()
+                .map(entry -> this.createServiceDetails(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
 
+        for (ServiceDetails serviceDetails : createdServices) {
             this.maybeAddAspectHandlerService(serviceDetails, aspectHandlerServices);
-
-            serviceDetails.setBeans(this.findBeans(serviceDetails));
             this.notifyServiceDetailsCreated(serviceDetails);
 
             serviceDetailsStorage.add(serviceDetails);
@@ -78,6 +92,173 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         return serviceDetailsStorage;
     }
 
+    /**
+     * Creates {@link ServiceDetails} and its beans for a given class.
+     * If the scan cache has a valid result for the class, the details are rebuilt from it
+     * otherwise the class is scanned and the result is stored in the cache.
+     *
+     * @param cls        - service class.
+     * @param annotation - annotation used to map the service.
+     * @return created service details.
+     */
+    private ServiceDetails createServiceDetails(Class<?> cls, Annotation annotation) {
+        if (this.scanCache != null) {
+            final CachedServiceDto cachedService = this.scanCache.getCachedService(cls.getName());
+            if (cachedService != null) {
+                try {
+                    final ServiceDetails serviceDetails = this.restoreServiceDetails(cls, annotation, cachedService);
+                    this.scanCache.putCachedService(cachedService);
+                    return serviceDetails;
+                } catch (ReflectiveOperationException | IllegalArgumentException ignored) {
+                    //The cached result is outdated (eg. a library has changed), scan the class again.
+                }
+            }
+        }
+
+        final ServiceDetails serviceDetails = new ServiceDetails(
+                cls,
+                annotation,
+                this.findSuitableConstructor(cls),
+                this.findInstanceName(cls.getDeclaredAnnotations()),
+                this.findLifecycleMethod(PostConstruct.class, cls, true),
+                this.findLifecycleMethod(PreDestroy.class, cls, false),
+                this.findScope(cls),
+                this.findAutowireAnnotatedFields(cls, new ArrayList<>()).toArray(new Field[0])
+        );
+
+        serviceDetails.setBeans(this.findBeans(serviceDetails));
+
+        if (this.scanCache != null) {
+            this.scanCache.putCachedService(this.toCachedService(serviceDetails));
+        }
+
+        return serviceDetails;
+    }
+
+    /**
+     * Rebuilds {@link ServiceDetails} from a cached scanning result by looking up the members directly.
+     */
+    ServiceDetails restoreServiceDetails(Class<?> cls,
+                                         Annotation annotation,
+                                         CachedServiceDto cachedService) throws ReflectiveOperationException {
+        final Class<?>[] parameterTypes = new Class<?>[cachedService.getConstructorParameterTypes().size()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = this.loadType(cachedService.getConstructorParameterTypes().get(i));
+        }
+
+        final Constructor<?> constructor = cls.getDeclaredConstructor(parameterTypes);
+        constructor.setAccessible(true);
+
+        final Field[] autowiredFields = new Field[cachedService.getAutowiredFields().size()];
+        for (int i = 0; i < autowiredFields.length; i++) {
+            final String[] member = cachedService.getAutowiredFields().get(i).split(MEMBER_SEPARATOR);
+            autowiredFields[i] = this.loadType(member[0]).getDeclaredField(member[1]);
+            autowiredFields[i].setAccessible(true);
+        }
+
+        final ServiceDetails serviceDetails = new ServiceDetails(
+                cls,
+                annotation,
+                constructor,
+                cachedService.getInstanceName(),
+                this.restoreMethod(cachedService.getPostConstructMethod()),
+                this.restoreMethod(cachedService.getPreDestroyMethod()),
+                ScopeType.valueOf(cachedService.getScopeType()),
+                autowiredFields
+        );
+
+        final Set<ServiceBeanDetails> beans = new HashSet<>();
+        for (CachedServiceDto.CachedBeanDto cachedBean : cachedService.getBeans()) {
+            final Method method = cls.getDeclaredMethod(cachedBean.getMethodName());
+            method.setAccessible(true);
+
+            @SuppressWarnings("unchecked") final Class<? extends Annotation> beanAnnotation =
+                    (Class<? extends Annotation>) this.loadType(cachedBean.getAnnotationType());
+
+            beans.add(new ServiceBeanDetails(
+                    method.getReturnType(),
+                    method,
+                    serviceDetails,
+                    method.getDeclaredAnnotation(beanAnnotation),
+                    ScopeType.valueOf(cachedBean.getScopeType()),
+                    cachedBean.getInstanceName()
+            ));
+        }
+
+        serviceDetails.setBeans(beans);
+
+        return serviceDetails;
+    }
+
+    private Method restoreMethod(String cachedMethod) throws ReflectiveOperationException {
+        if (cachedMethod == null) {
+            return null;
+        }
+
+        final String[] member = cachedMethod.split(MEMBER_SEPARATOR);
+        final Method method = this.loadType(member[0]).getDeclaredMethod(member[1]);
+        method.setAccessible(true);
+
+        return method;
+    }
+
+    /**
+     * The stored class hierarchy ends before {@link Object}, which has no members that are scanned.
+     */
+    CachedServiceDto toCachedService(ServiceDetails serviceDetails) {
+        final List<String> classHierarchy = new ArrayList<>();
+        for (Class<?> cls = serviceDetails.getServiceType(); cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            classHierarchy.add(cls.getName());
+        }
+
+        final List<CachedServiceDto.CachedBeanDto> beans = new ArrayList<>();
+        for (ServiceBeanDetails bean : serviceDetails.getBeans()) {
+            beans.add(new CachedServiceDto.CachedBeanDto(
+                    bean.getOriginMethod().getName(),
+                    bean.getAnnotation().annotationType().getName(),
+                    bean.getScopeType().name(),
+                    bean.getInstanceName()
+            ));
+        }
+
+        return new CachedServiceDto(
+                serviceDetails.getServiceType().getName(),
+                serviceDetails.getAnnotation() == null ? null : serviceDetails.getAnnotation().annotationType().getName(),
+                Arrays.stream(serviceDetails.getTargetConstructor().getParameterTypes())
+                        .map(Class::getName)
+                        .collect(Collectors.toList()),
+                serviceDetails.getInstanceName(),
+                this.toCachedMember(serviceDetails.getPostConstructMethod()),
+                this.toCachedMember(serviceDetails.getPreDestroyMethod()),
+                serviceDetails.getScopeType().name(),
+                Arrays.stream(serviceDetails.getAutowireAnnotatedFields())
+                        .map(this::toCachedMember)
+                        .collect(Collectors.toList()),
+                beans,
+                classHierarchy
+        );
+    }
+
+    private String toCachedMember(Member member) {
+        if (member == null) {
+            return null;
+        }
+
+        return member.getDeclaringClass().getName() + MEMBER_SEPARATOR + member.getName();
+    }
+
+    /**
+     * Loads a class by its name, including primitive types.
+     */
+    Class<?> loadType(String className) throws ClassNotFoundException {
+        final Class<?> primitiveType = PRIMITIVE_TYPES.get(className);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        return Class.forName(className, false, this.configuration.getClassLoader());
+    }
+
     /**
      * Iterates all given classes and filters those that have {@link Service} annotation
      * or one prided by the client.
@@ -94,7 +275,7 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
             }
 
             for (Annotation annotation : cls.getAnnotations()) {
-                if (serviceAnnotations.contains(annotation.annotationType())) {
+                if (serviceAnnotations.contains(annotation.annotationType()) || this.isServiceAlias(annotation)) {
                     locatedClasses.put(cls, annotation);
                     break;
                 }
@@ -113,6 +294,20 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         return locatedClasses;
     }
 
+    /**
+     * @param annotation - annotation declared on a scanned class.
+     * @return true if the annotation is an {@link AliasFor} of one of the service annotations.
+     */
+    private boolean isServiceAlias(Annotation annotation) {
+        for (Class<? extends Annotation> serviceAnnotation : this.configuration.getServiceAnnotations()) {
+            if (AliasFinder.getAliasAnnotation(annotation, serviceAnnotation) != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Looks for a constructor from the given class that has {@link Autowired} annotation
      * or gets the first one.
@@ -131,10 +326,9 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         return cls.getConstructors()[0];
     }
 
-    private Method findVoidMethodWithZeroParamsAndAnnotations(Class<? extends Annotation> annotation, Class<?> cls) {
+    private Method findLifecycleMethod(Class<? extends Annotation> annotation, Class<?> cls, boolean allowCompletionStage) {
         for (Method method : cls.getDeclaredMethods()) {
-            if (method.getParameterCount() != 0 ||
-                    (method.getReturnType() != void.class && method.getReturnType() != Void.class)) {
+            if (method.getParameterCount() != 0 || !this.isLifecycleReturnType(method.getReturnType(), allowCompletionStage)) {
                 continue;
             }
 
@@ -145,12 +339,20 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
         }
 
         if (cls.getSuperclass() != null) {
-            return this.findVoidMethodWithZeroParamsAndAnnotations(annotation, cls.getSuperclass());
+            return this.findLifecycleMethod(annotation, cls.getSuperclass(), allowCompletionStage);
         }
 
         return null;
     }
 
+    private boolean isLifecycleReturnType(Class<?> returnType, boolean allowCompletionStage) {
+        if (returnType == void.class || returnType == Void.class) {
+            return true;
+        }
+
+        return allowCompletionStage && CompletionStage.class.isAssignableFrom(returnType);
+    }
+
     /**
      * Check if service is of type {@link ServiceMethodAspectHandler} and add it to the collection of aspect services
      *
@@ -219,7 +421,7 @@ public class ServicesScanningServiceImpl implements ServicesScanningService {
      *
      * @param serviceDetails - newly mapped service.
      */
-    private void notifyServiceDetailsCreated(ServiceDetails serviceDetails) {
+    void notifyServiceDetailsCreated(ServiceDetails serviceDetails) {
         for (ServiceDetailsCreated callback : this.configuration.getServiceDetailsCreatedCallbacks()) {
             callback.serviceDetailsCreated(serviceDetails);
             for (ServiceBeanDetails bean : serviceDetails.getBeans()) {
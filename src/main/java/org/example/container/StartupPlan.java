@@ -0,0 +1,671 @@
+package org.example.container;
+
+import org.example.configs.InstantiationConfiguration;
+import org.example.directory.Directory;
+import org.example.directory.DirectoryType;
+import org.example.exceptions.ClassLocationException;
+import org.example.instantiations.EnqueuedServiceDetails;
+import org.example.instantiations.ServiceBeanDetails;
+import org.example.middleware.DependencyResolver;
+import org.example.model.CachedServiceDto;
+import org.example.model.DependencyParam;
+import org.example.model.DependencyParamCollection;
+import org.example.model.MethodAspectHandlerDto;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.lang.module.ResolvedModule;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Ahead of time startup plan: the result of scanning and dependency resolution written to a compact binary file,
+ * so that the application can go straight to instantiation on the next start.
+ * <p>
+ * The plan contains the located classes, every service of the {@link DependencyGraph} in instantiation order
+ * (its scanning result as {@link CachedServiceDto}, or a reference to a provided service), the aspect bindings,
+ * the provider chosen for every constructor parameter and field and the edges of the graph.
+ * All strings are kept once in a table and referenced by index.
+ * <p>
+ * The plan is bound to a checksum of the startup directories and the configuration (see {@link #checksum}).
+ * If the checksum does not match or the plan cannot be restored (eg. a class was removed), it is ignored.
+ */
+public class StartupPlan {
+
+    private static final int PLAN_MAGIC = 0x494f4350;
+
+    private static final int PLAN_FORMAT_VERSION = 1;
+
+    private static final int NULL_INDEX = -1;
+
+    private static final byte MAPPED_SERVICE = 0;
+
+    private static final byte PROVIDED_SERVICE = 1;
+
+    private static final byte PARAM_NOT_RESOLVED = 0;
+
+    private static final byte PARAM_SERVICE = 1;
+
+    private static final byte PARAM_COLLECTION = 2;
+
+    private static final byte PARAM_DEPENDENCY_RESOLVER = 3;
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private static final String FILE_SCHEME = "file";
+
+    private static final String RUNTIME_IMAGE_SCHEME = "jrt";
+
+    private static final String JAVA_HOME_PROPERTY = "java.home";
+
+    private final Set<Class<?>> locatedClasses;
+
+    private final Set<ServiceDetails> mappedServices;
+
+    private final DependencyGraph dependencyGraph;
+
+    private StartupPlan(Set<Class<?>> locatedClasses, Set<ServiceDetails> mappedServices, DependencyGraph dependencyGraph) {
+        this.locatedClasses = locatedClasses;
+        this.mappedServices = mappedServices;
+        this.dependencyGraph = dependencyGraph;
+    }
+
+    public Set<Class<?>> getLocatedClasses() {
+        return this.locatedClasses;
+    }
+
+    public Set<ServiceDetails> getMappedServices() {
+        return this.mappedServices;
+    }
+
+    public DependencyGraph getDependencyGraph() {
+        return this.dependencyGraph;
+    }
+
+    /**
+     * Class files of directories are fingerprinted by path, size and last modified time and jar files as a whole.
+     * Modules are fingerprinted by their location: the jar file or the class files of an exploded module,
+     * the runtime image for modules linked into it, otherwise the content of their class files.
+     *
+     * @param startupDirectories     - the scanned directories.
+     * @param configurationSignature - value that changes when the configuration changes.
+     * @return checksum that changes whenever the plan might be stale.
+     */
+    public static long checksum(Collection<Directory> startupDirectories, String configurationSignature) {
+        final CRC32C crc = new CRC32C();
+        update(crc, configurationSignature);
+
+        final List<Directory> directories = new ArrayList<>(startupDirectories);
+        directories.sort(Comparator.comparing(Directory::getDirectory));
+
+        for (Directory directory : directories) {
+            update(crc, directory.getDirectoryType().name() + ":" + directory.getDirectory());
+
+            if (directory.getDirectoryType() == DirectoryType.JAR_FILE) {
+                updateWithFile(crc, directory.getDirectory(), Paths.get(directory.getDirectory()));
+            } else if (directory.getDirectoryType() == DirectoryType.DIRECTORY) {
+                updateWithClassFiles(crc, Paths.get(directory.getDirectory()));
+            } else if (directory.getDirectoryType() == DirectoryType.MODULE) {
+                updateWithModule(crc, directory.getDirectory());
+            }
+        }
+
+        return crc.getValue();
+    }
+
+    private static void updateWithClassFiles(CRC32C crc, Path root) {
+        try (Stream<Path> files = Files.walk(root)) {
+            final List<Path> classFiles = files
+                    .filter(file -> file.getFileName().toString().endsWith(CLASS_FILE_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            for (Path classFile : classFiles) {
+                updateWithFile(crc, root.relativize(classFile).toString(), classFile);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new ClassLocationException(String.format("Could not read directory '%s'.", root), e);
+        }
+    }
+
+    private static void updateWithModule(CRC32C crc, String moduleName) {
+        final ModuleReference module = ModuleLayer.boot().configuration().findModule(moduleName)
+                .map(ResolvedModule::reference)
+                .orElse(null);
+
+        if (module == null) {
+            update(crc, "?");
+            return;
+        }
+
+        update(crc, module.descriptor().toNameAndVersion());
+
+        final URI location = module.location().orElse(null);
+        if (location != null && FILE_SCHEME.equals(location.getScheme())) {
+            final Path path = Paths.get(location);
+            if (Files.isDirectory(path)) {
+                updateWithClassFiles(crc, path);
+            } else {
+                updateWithFile(crc, path.toString(), path);
+            }
+
+            return;
+        }
+
+        if (location != null && RUNTIME_IMAGE_SCHEME.equals(location.getScheme())) {
+            final Path runtimeImage = Paths.get(System.getProperty(JAVA_HOME_PROPERTY), "lib", "modules");
+            updateWithFile(crc, runtimeImage.toString(), runtimeImage);
+            return;
+        }
+
+        //No file to fingerprint, so the class files themselves are.
+        try (ModuleReader moduleReader = module.open(); Stream<String> entries = moduleReader.list()) {
+            final List<String> classFiles = entries
+                    .filter(entry -> entry.endsWith(CLASS_FILE_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            for (String classFile : classFiles) {
+                update(crc, classFile);
+
+                final Optional<ByteBuffer> content = moduleReader.read(classFile);
+                if (content.isPresent()) {
+                    try {
+                        crc.update(content.get());
+                    } finally {
+                        moduleReader.release(content.get());
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new ClassLocationException(String.format("Could not read module '%s'.", moduleName), e);
+        }
+    }
+
+    private static void updateWithFile(CRC32C crc, String name, Path file) {
+        update(crc, name);
+
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            update(crc, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            update(crc, "?");
+        }
+    }
+
+    private static void update(CRC32C crc, String value) {
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+        crc.update(0);
+    }
+
+    /**
+     * Writes the plan for resolved services.
+     *
+     * @param planFile        - the plan file.
+     * @param checksum        - see {@link #checksum}.
+     * @param locatedClasses  - all located classes.
+     * @param mappedServices  - services created by the scanning.
+     * @param dependencyGraph - the resolved graph of the mapped and provided services.
+     * @param scanningService - used to convert the services to {@link CachedServiceDto}.
+     */
+    public static void write(Path planFile,
+                             long checksum,
+                             Collection<Class<?>> locatedClasses,
+                             Set<ServiceDetails> mappedServices,
+                             DependencyGraph dependencyGraph,
+                             ServicesScanningServiceImpl scanningService) {
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        try (DataOutputStream outputStream = new DataOutputStream(body)) {
+            new Writer(strings, outputStream, dependencyGraph)
+                    .write(locatedClasses, mappedServices, scanningService);
+        } catch (IOException e) {
+            throw new ClassLocationException(String.format("Could not write startup plan '%s'.", planFile), e);
+        }
+
+        try {
+            final Path parent = planFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            final Path tempFile = Files.createTempFile(parent, planFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                outputStream.writeInt(PLAN_MAGIC);
+                outputStream.writeInt(PLAN_FORMAT_VERSION);
+                outputStream.writeLong(checksum);
+
+                outputStream.writeInt(strings.size());
+                for (String value : strings.keySet()) {
+                    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    outputStream.writeInt(bytes.length);
+                    outputStream.write(bytes);
+                }
+
+                body.writeTo(outputStream);
+            }
+
+            Files.move(tempFile, planFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ClassLocationException(String.format("Could not write startup plan '%s'.", planFile), e);
+        }
+    }
+
+    /**
+     * Maps the plan file and restores the services and the dependency graph.
+     *
+     * @param planFile        - the plan file.
+     * @param checksum        - see {@link #checksum}.
+     * @param scanningService - used to restore the services from {@link CachedServiceDto}.
+     * @param configuration   - provided services and dependency resolvers.
+     * @return the restored plan or null if the file is missing, stale or cannot be restored.
+     */
+    public static StartupPlan load(Path planFile,
+                                   long checksum,
+                                   ServicesScanningServiceImpl scanningService,
+                                   InstantiationConfiguration configuration) {
+        if (!Files.isRegularFile(planFile)) {
+            return null;
+        }
+
+        final StartupPlan startupPlan;
+        try (FileChannel channel = FileChannel.open(planFile, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != PLAN_MAGIC || buffer.getInt() != PLAN_FORMAT_VERSION || buffer.getLong() != checksum) {
+                return null;
+            }
+
+            startupPlan = new Reader(buffer, scanningService, configuration).read();
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            //The plan is outdated or corrupted, the application will be scanned again.
+            return null;
+        }
+
+        for (ServiceDetails serviceDetails : startupPlan.mappedServices) {
+            scanningService.notifyServiceDetailsCreated(serviceDetails);
+        }
+
+        return startupPlan;
+    }
+
+    private static class Writer {
+
+        private final Map<String, Integer> strings;
+
+        private final DataOutputStream outputStream;
+
+        private final DependencyGraph dependencyGraph;
+
+        /**
+         * Position of each service in the plan, indexed by its id in the graph.
+         */
+        private final int[] planIds;
+
+        private Writer(Map<String, Integer> strings, DataOutputStream outputStream, DependencyGraph dependencyGraph) {
+            this.strings = strings;
+            this.outputStream = outputStream;
+            this.dependencyGraph = dependencyGraph;
+            this.planIds = new int[dependencyGraph.size()];
+
+            final int[] instantiationOrder = dependencyGraph.getInstantiationOrder();
+            for (int i = 0; i < instantiationOrder.length; i++) {
+                this.planIds[instantiationOrder[i]] = i;
+            }
+        }
+
+        private void write(Collection<Class<?>> locatedClasses,
+                           Set<ServiceDetails> mappedServices,
+                           ServicesScanningServiceImpl scanningService) throws IOException {
+            this.outputStream.writeInt(locatedClasses.size());
+            for (Class<?> locatedClass : locatedClasses) {
+                this.writeString(locatedClass.getName());
+            }
+
+            final int[] instantiationOrder = this.dependencyGraph.getInstantiationOrder();
+
+            this.outputStream.writeInt(instantiationOrder.length);
+            for (int id : instantiationOrder) {
+                final ServiceDetails serviceDetails = this.dependencyGraph.getService(id);
+                if (mappedServices.contains(serviceDetails)) {
+                    this.outputStream.writeByte(MAPPED_SERVICE);
+                    this.writeService(scanningService.toCachedService(serviceDetails));
+                } else {
+                    this.outputStream.writeByte(PROVIDED_SERVICE);
+                    this.writeString(serviceDetails.getServiceType().getName());
+                    this.writeString(serviceDetails.getInstanceName());
+                }
+            }
+
+            for (int id : instantiationOrder) {
+                this.writeAspects(this.dependencyGraph.getService(id));
+                this.writeDependencyParams(this.dependencyGraph.getEnqueuedService(id));
+                this.writeEdges(id);
+            }
+        }
+
+        private void writeService(CachedServiceDto cachedService) throws IOException {
+            this.writeString(cachedService.getClassName());
+            this.writeString(cachedService.getAnnotationType());
+            this.writeStrings(cachedService.getConstructorParameterTypes());
+            this.writeString(cachedService.getInstanceName());
+            this.writeString(cachedService.getPostConstructMethod());
+            this.writeString(cachedService.getPreDestroyMethod());
+            this.writeString(cachedService.getScopeType());
+            this.writeStrings(cachedService.getAutowiredFields());
+
+            this.outputStream.writeInt(cachedService.getBeans().size());
+            for (CachedServiceDto.CachedBeanDto bean : cachedService.getBeans()) {
+                this.writeString(bean.getMethodName());
+                this.writeString(bean.getAnnotationType());
+                this.writeString(bean.getScopeType());
+                this.writeString(bean.getInstanceName());
+            }
+        }
+
+        private void writeAspects(ServiceDetails serviceDetails) throws IOException {
+            final Map<Method, List<MethodAspectHandlerDto>> aspects = serviceDetails.getMethodAspectHandlers();
+
+            this.outputStream.writeInt(aspects.size());
+            for (Map.Entry<Method, List<MethodAspectHandlerDto>> aspect : aspects.entrySet()) {
+                this.writeString(aspect.getKey().getName());
+                this.writeStrings(Arrays.stream(aspect.getKey().getParameterTypes())
+                        .map(Class::getName)
+                        .collect(Collectors.toList()));
+
+                this.outputStream.writeInt(aspect.getValue().size());
+                for (MethodAspectHandlerDto handler : aspect.getValue()) {
+                    this.writeString(handler.getAnnotation().getName());
+                    this.writeServiceReference(handler.getServiceDetails());
+                }
+            }
+        }
+
+        private void writeDependencyParams(EnqueuedServiceDetails enqueuedServiceDetails) throws IOException {
+            final List<DependencyParam> dependencyParams = new ArrayList<>(enqueuedServiceDetails.getConstructorParams());
+            dependencyParams.addAll(enqueuedServiceDetails.getFieldDependencies());
+
+            this.outputStream.writeInt(dependencyParams.size());
+            for (DependencyParam dependencyParam : dependencyParams) {
+                this.outputStream.writeBoolean(dependencyParam.isRequired());
+
+                if (dependencyParam.getDependencyResolver() != null) {
+                    this.outputStream.writeByte(PARAM_DEPENDENCY_RESOLVER);
+                } else if (dependencyParam instanceof DependencyParamCollection) {
+                    final List<ServiceDetails> services = ((DependencyParamCollection) dependencyParam).getAllServiceDetails();
+                    this.outputStream.writeByte(PARAM_COLLECTION);
+                    this.outputStream.writeInt(services.size());
+                    for (ServiceDetails service : services) {
+                        this.writeServiceReference(service);
+                    }
+                } else if (dependencyParam.getServiceDetails() != null) {
+                    this.outputStream.writeByte(PARAM_SERVICE);
+                    this.writeServiceReference(dependencyParam.getServiceDetails());
+                } else {
+                    this.outputStream.writeByte(PARAM_NOT_RESOLVED);
+                }
+            }
+        }
+
+        private void writeEdges(int id) throws IOException {
+            final int[] dependencies = this.dependencyGraph.getDependencyIds(id);
+
+            this.outputStream.writeInt(dependencies.length);
+            for (int i = 0; i < dependencies.length; i++) {
+                this.outputStream.writeInt(this.planIds[dependencies[i]]);
+                this.writeString(this.dependencyGraph.getDependencyDescription(id, i));
+            }
+        }
+
+        /**
+         * Services are referenced by their position in the plan and beans additionally by their method name.
+         */
+        private void writeServiceReference(ServiceDetails serviceDetails) throws IOException {
+            this.outputStream.writeInt(this.planIds[this.dependencyGraph.getId(serviceDetails)]);
+
+            if (serviceDetails instanceof ServiceBeanDetails) {
+                this.writeString(((ServiceBeanDetails) serviceDetails).getOriginMethod().getName());
+            } else {
+                this.writeString(null);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                this.outputStream.writeInt(NULL_INDEX);
+                return;
+            }
+
+            this.outputStream.writeInt(this.strings.computeIfAbsent(value, v -> this.strings.size()));
+        }
+
+        private void writeStrings(List<String> values) throws IOException {
+            this.outputStream.writeInt(values.size());
+            for (String value : values) {
+                this.writeString(value);
+            }
+        }
+    }
+
+    private static class Reader {
+
+        private final ByteBuffer buffer;
+
+        private final ServicesScanningServiceImpl scanningService;
+
+        private final InstantiationConfiguration configuration;
+
+        private String[] strings;
+
+        private ServiceDetails[] services;
+
+        private Reader(ByteBuffer buffer, ServicesScanningServiceImpl scanningService, InstantiationConfiguration configuration) {
+            this.buffer = buffer;
+            this.scanningService = scanningService;
+            this.configuration = configuration;
+        }
+
+        private StartupPlan read() throws ReflectiveOperationException {
+            this.strings = new String[this.buffer.getInt()];
+            for (int i = 0; i < this.strings.length; i++) {
+                final byte[] bytes = new byte[this.buffer.getInt()];
+                this.buffer.get(bytes);
+                this.strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            final Set<Class<?>> locatedClasses = new HashSet<>();
+            final int locatedClassesCount = this.buffer.getInt();
+            for (int i = 0; i < locatedClassesCount; i++) {
+                locatedClasses.add(this.scanningService.loadType(this.readString()));
+            }
+
+            final Set<ServiceDetails> mappedServices = new HashSet<>();
+            this.services = new ServiceDetails[this.buffer.getInt()];
+            for (int i = 0; i < this.services.length; i++) {
+                if (this.buffer.get() == MAPPED_SERVICE) {
+                    this.services[i] = this.readService();
+                    mappedServices.add(this.services[i]);
+                } else {
+                    this.services[i] = this.findProvidedService(this.readString(), this.readString());
+                }
+            }
+
+            final List<EnqueuedServiceDetails> nodes = new ArrayList<>(this.services.length);
+            final int[][] dependencies = new int[this.services.length][];
+            final String[][] edgeDescriptions = new String[this.services.length][];
+            for (int i = 0; i < this.services.length; i++) {
+                this.readAspects(this.services[i]);
+                nodes.add(this.readDependencyParams(new EnqueuedServiceDetails(this.services[i])));
+
+                dependencies[i] = new int[this.buffer.getInt()];
+                edgeDescriptions[i] = new String[dependencies[i].length];
+                for (int edge = 0; edge < dependencies[i].length; edge++) {
+                    dependencies[i][edge] = this.buffer.getInt();
+                    edgeDescriptions[i][edge] = this.readString();
+                }
+            }
+
+            return new StartupPlan(locatedClasses, mappedServices, new DependencyGraph(nodes, dependencies, edgeDescriptions));
+        }
+
+        private ServiceDetails readService() throws ReflectiveOperationException {
+            final String className = this.readString();
+            final String annotationType = this.readString();
+            final List<String> constructorParameterTypes = this.readStrings();
+            final String instanceName = this.readString();
+            final String postConstructMethod = this.readString();
+            final String preDestroyMethod = this.readString();
+            final String scopeType = this.readString();
+            final List<String> autowiredFields = this.readStrings();
+
+            final int beansCount = this.buffer.getInt();
+            final List<CachedServiceDto.CachedBeanDto> beans = new ArrayList<>(beansCount);
+            for (int i = 0; i < beansCount; i++) {
+                beans.add(new CachedServiceDto.CachedBeanDto(
+                        this.readString(), this.readString(), this.readString(), this.readString()
+                ));
+            }
+
+            final Class<?> cls = this.scanningService.loadType(className);
+            Annotation annotation = null;
+            if (annotationType != null) {
+                annotation = cls.getAnnotation(this.scanningService.loadType(annotationType).asSubclass(Annotation.class));
+            }
+
+            return this.scanningService.restoreServiceDetails(cls, annotation, new CachedServiceDto(
+                    className, annotationType, constructorParameterTypes, instanceName, postConstructMethod,
+                    preDestroyMethod, scopeType, autowiredFields, beans, List.of()
+            ));
+        }
+
+        private ServiceDetails findProvidedService(String className, String instanceName) {
+            for (ServiceDetails providedService : this.configuration.getProvidedServices()) {
+                if (providedService.getServiceType().getName().equals(className)
+                        && Objects.equals(providedService.getInstanceName(), instanceName)) {
+                    return providedService;
+                }
+            }
+
+            throw new IllegalStateException(String.format("Provided service '%s' is missing.", className));
+        }
+
+        private void readAspects(ServiceDetails serviceDetails) throws ReflectiveOperationException {
+            final int methodsCount = this.buffer.getInt();
+            if (methodsCount == 0) {
+                return;
+            }
+
+            final Map<Method, List<MethodAspectHandlerDto>> aspects = new HashMap<>();
+            for (int i = 0; i < methodsCount; i++) {
+                final String methodName = this.readString();
+                final List<String> parameterTypeNames = this.readStrings();
+                final Class<?>[] parameterTypes = new Class<?>[parameterTypeNames.size()];
+                for (int j = 0; j < parameterTypes.length; j++) {
+                    parameterTypes[j] = this.scanningService.loadType(parameterTypeNames.get(j));
+                }
+
+                final Method method = serviceDetails.getServiceType().getDeclaredMethod(methodName, parameterTypes);
+
+                final int handlersCount = this.buffer.getInt();
+                final List<MethodAspectHandlerDto> handlers = new ArrayList<>(handlersCount);
+                for (int j = 0; j < handlersCount; j++) {
+                    final Class<? extends Annotation> annotation = this.scanningService.loadType(this.readString())
+                            .asSubclass(Annotation.class);
+                    handlers.add(new MethodAspectHandlerDto(this.readServiceReference(), annotation));
+                }
+
+                aspects.put(method, handlers);
+            }
+
+            serviceDetails.setMethodAspectHandlers(aspects);
+        }
+
+        private EnqueuedServiceDetails readDependencyParams(EnqueuedServiceDetails enqueuedServiceDetails) {
+            final List<DependencyParam> dependencyParams = new ArrayList<>(enqueuedServiceDetails.getConstructorParams());
+            dependencyParams.addAll(enqueuedServiceDetails.getFieldDependencies());
+
+            if (dependencyParams.size() != this.buffer.getInt()) {
+                throw new IllegalStateException(String.format(
+                        "Dependencies of '%s' have changed.", enqueuedServiceDetails.getServiceDetails()
+                ));
+            }
+
+            for (DependencyParam dependencyParam : dependencyParams) {
+                dependencyParam.setRequired(this.buffer.get() != 0);
+
+                final byte paramType = this.buffer.get();
+                if (paramType == PARAM_SERVICE) {
+                    dependencyParam.setServiceDetails(this.readServiceReference());
+                } else if (paramType == PARAM_COLLECTION) {
+                    final List<ServiceDetails> services = new ArrayList<>();
+                    final int servicesCount = this.buffer.getInt();
+                    for (int i = 0; i < servicesCount; i++) {
+                        services.add(this.readServiceReference());
+                    }
+
+                    ((DependencyParamCollection) dependencyParam).setServiceDetails(services);
+                } else if (paramType == PARAM_DEPENDENCY_RESOLVER) {
+                    final DependencyResolver dependencyResolver = this.configuration.getDependencyResolvers().stream()
+                            .filter(dr -> dr.canResolve(dependencyParam))
+                            .findFirst()
+                            .orElseThrow(() -> new IllegalStateException("Dependency resolver is missing."));
+
+                    dependencyParam.setInstance(dependencyResolver.resolve(dependencyParam));
+                    dependencyParam.setDependencyResolver(dependencyResolver);
+                }
+            }
+
+            return enqueuedServiceDetails;
+        }
+
+        private ServiceDetails readServiceReference() {
+            final ServiceDetails service = this.services[this.buffer.getInt()];
+            final String beanMethodName = this.readString();
+            if (beanMethodName == null) {
+                return service;
+            }
+
+            for (ServiceBeanDetails bean : service.getBeans()) {
+                if (bean.getOriginMethod().getName().equals(beanMethodName)) {
+                    return bean;
+                }
+            }
+
+            throw new IllegalStateException(String.format("Bean '%s' of '%s' is missing.", beanMethodName, service));
+        }
+
+        private String readString() {
+            final int index = this.buffer.getInt();
+            return index == NULL_INDEX ? null : this.strings[index];
+        }
+
+        private List<String> readStrings() {
+            final int count = this.buffer.getInt();
+            final List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(this.readString());
+            }
+
+            return values;
+        }
+    }
+}
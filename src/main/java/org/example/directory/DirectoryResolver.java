@@ -1,8 +1,10 @@
 package org.example.directory;
 
 import java.io.File;
+import java.util.List;
 
 public interface DirectoryResolver {
     Directory resolveDirectory(Class<?> initClass);
     Directory resolveDirectory(File directory);
+    List<Directory> resolveClasspath(ClassLoader classLoader);
 }
@@ -2,8 +2,17 @@ package org.example.directory;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.module.ResolvedModule;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * DirectoryResolver implementation.
@@ -12,6 +21,13 @@ import java.nio.charset.StandardCharsets;
  */
 public class DirectoryResolverImpl implements DirectoryResolver {
     private static final String JAR_FILE_EXTENSION = ".jar";
+    private static final String CLASS_PATH_PROPERTY = "java.class.path";
+    private static final String MANIFEST_LOCATION = "META-INF/MANIFEST.MF";
+    private static final String FILE_PROTOCOL = "file";
+    private static final String JAR_PROTOCOL = "jar";
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
+    private static final String MODULE_KEY_PREFIX = "jrt:/";
+
     @Override
     public Directory resolveDirectory(Class<?> initClass) {
         String pathDir = this.getDirectory(initClass);
@@ -27,6 +43,99 @@ public class DirectoryResolverImpl implements DirectoryResolver {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Collects all roots visible to the application: the entries of "java.class.path",
+     * the roots returned by {@link ClassLoader#getResources(String)} (directories and jar files with a manifest)
+     * and the modules of the boot layer that are not part of the JDK.
+     * <p>
+     * Roots are deduplicated by their canonical path and missing entries are skipped.
+     * Modules with a file location (jar file or exploded directory) are resolved like any other root,
+     * the rest (eg. modules linked into a runtime image) are returned as {@link DirectoryType#MODULE}
+     * with the module name as directory.
+     *
+     * @param classLoader - class loader used to find the resource roots.
+     * @return the roots in the order they were found.
+     */
+    @Override
+    public List<Directory> resolveClasspath(ClassLoader classLoader) {
+        final Map<String, Directory> directories = new LinkedHashMap<>();
+
+        for (String entry : System.getProperty(CLASS_PATH_PROPERTY, "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                this.addFile(directories, new File(entry));
+            }
+        }
+
+        try {
+            for (URL url : Collections.list(classLoader.getResources(""))) {
+                this.addResourceRoot(directories, url, "");
+            }
+
+            for (URL url : Collections.list(classLoader.getResources(MANIFEST_LOCATION))) {
+                this.addResourceRoot(directories, url, MANIFEST_LOCATION);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        final ModuleLayer bootLayer = ModuleLayer.boot();
+        for (ResolvedModule module : bootLayer.configuration().modules()) {
+            final ClassLoader moduleClassLoader = bootLayer.findLoader(module.name());
+            if (moduleClassLoader == null || moduleClassLoader == ClassLoader.getPlatformClassLoader()) {
+                continue;
+            }
+
+            final URI location = module.reference().location().orElse(null);
+            if (location != null && FILE_PROTOCOL.equals(location.getScheme())) {
+                this.addFile(directories, new File(location));
+            } else {
+                directories.putIfAbsent(MODULE_KEY_PREFIX + module.name(), new Directory(module.name(), DirectoryType.MODULE));
+            }
+        }
+
+        return new ArrayList<>(directories.values());
+    }
+
+    /**
+     * Adds the root from which a given resource was loaded, if it is a local directory or jar file.
+     *
+     * @param url          - url of the resource.
+     * @param resourceName - name of the resource relative to the root.
+     */
+    private void addResourceRoot(Map<String, Directory> directories, URL url, String resourceName) {
+        String location = url.toString();
+
+        if (JAR_PROTOCOL.equals(url.getProtocol())) {
+            final int separatorIndex = location.indexOf(JAR_ENTRY_SEPARATOR);
+            if (separatorIndex < 0) {
+                return;
+            }
+
+            location = location.substring(JAR_PROTOCOL.length() + 1, separatorIndex);
+        } else if (location.endsWith(resourceName)) {
+            location = location.substring(0, location.length() - resourceName.length());
+        }
+
+        try {
+            final URI uri = new URI(location);
+            if (FILE_PROTOCOL.equals(uri.getScheme())) {
+                this.addFile(directories, new File(uri));
+            }
+        } catch (URISyntaxException | IllegalArgumentException ignored) {
+            //Not a local file (eg. nested jar or remote url), nothing to scan.
+        }
+    }
+
+    private void addFile(Map<String, Directory> directories, File file) {
+        if (!file.isDirectory() && !(file.isFile() && file.getName().endsWith(JAR_FILE_EXTENSION))) {
+            return;
+        }
+
+        final Directory directory = this.resolveDirectory(file);
+        directories.putIfAbsent(directory.getDirectory(), directory);
+    }
+
     /**
      * Get the root dir where the given class resides.
      *
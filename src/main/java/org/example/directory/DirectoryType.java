@@ -1,5 +1,5 @@
 package org.example.directory;
 
 public enum DirectoryType {
-    DIRECTORY, JAR_FILE
+    DIRECTORY, JAR_FILE, MODULE
 }
@@ -0,0 +1,52 @@
+package org.example.handler;
+
+import org.example.container.ServiceDetails;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Handler of the proxy that is injected instead of a lazy service which is not instantiated yet.
+ * The service is instantiated on the first method call.
+ * <p>
+ * {@link Object#equals}, {@link Object#hashCode} and {@link Object#toString} are answered by the proxy itself
+ * (with identity semantics), so that logging the proxy or putting it in a hash collection does not instantiate
+ * the service and its hash code does not change once it is instantiated.
+ */
+public class LazyInvocationHandler implements InvocationHandler {
+
+    private static final String LAZY_PROXY_FORMAT = "%s$LazyProxy@%x";
+
+    private final ServiceDetails serviceDetails;
+
+    public LazyInvocationHandler(ServiceDetails serviceDetails) {
+        this.serviceDetails = serviceDetails;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return this.invokeObjectMethod(proxy, method, args);
+        }
+
+        try {
+            return method.invoke(this.serviceDetails.getInstance(), args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return String.format(
+                        LAZY_PROXY_FORMAT, this.serviceDetails.getServiceType().getName(), System.identityHashCode(proxy)
+                );
+        }
+    }
+}
@@ -3,9 +3,11 @@ package org.example.instantiations;
 
 
 import org.example.annotations.Qualifier;
+import org.example.container.Provider;
 import org.example.container.ServiceDetails;
 import org.example.model.DependencyParam;
 import org.example.model.DependencyParamCollection;
+import org.example.model.DependencyParamProvider;
 import org.example.util.AliasFinder;
 import org.example.util.AnnotationUtils;
 
@@ -112,7 +114,11 @@ public class EnqueuedServiceDetails {
             return new DependencyParamCollection((ParameterizedType) parameterizedType, type, instanceName, annotations);
         }
 
-        return new DependencyParam(type, instanceName, annotations);
+        if (type == Provider.class && parameterizedType instanceof ParameterizedType) {
+            return new DependencyParamProvider((ParameterizedType) parameterizedType, instanceName, annotations);
+        }
+
+        return new DependencyParam(type, parameterizedType, instanceName, annotations);
     }
 
     private String getInstanceName(Annotation[] annotations) {
@@ -0,0 +1,126 @@
+package org.example.instantiations;
+
+import org.example.annotations.ScopeType;
+import org.example.container.ServiceDetails;
+import org.example.model.DependencyParam;
+import org.example.model.DependencyParamCollection;
+import org.example.model.DependencyParamProvider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Precomputed constructor and field arguments of a service, used for every new instance (eg. of a PROTOTYPE).
+ * <p>
+ * Every argument has a fixed slot. Arguments which are the same for every instance (SINGLETON and PROXY services,
+ * values of dependency resolvers, unresolved optional dependencies and providers) are evaluated once when the plan
+ * is created.
+ * Only the slots of PROTOTYPE services, collections and lazy services that are not instantiated yet
+ * are evaluated for each instance.
+ * If there are no such slots, the same argument arrays are returned every time without any allocation.
+ * <p>
+ * The plan is created on first use and kept in the {@link ServiceDetails}. It is dropped when the resolved
+ * dependencies change or one of the dependencies gets a new instance (see
+ * {@link org.example.container.DependencyContainerInternal#reload(ServiceDetails)}).
+ */
+public final class InstanceArgumentsPlan {
+
+    private final ArgumentSlots constructorArguments;
+
+    private final ArgumentSlots fieldArguments;
+
+    private InstanceArgumentsPlan(ArgumentSlots constructorArguments, ArgumentSlots fieldArguments) {
+        this.constructorArguments = constructorArguments;
+        this.fieldArguments = fieldArguments;
+    }
+
+    /**
+     * @param serviceDetails - service with resolved dependencies.
+     * @return the plan of the service.
+     */
+    public static InstanceArgumentsPlan create(ServiceDetails serviceDetails) {
+        return new InstanceArgumentsPlan(
+                new ArgumentSlots(serviceDetails.getResolvedConstructorParams()),
+                new ArgumentSlots(serviceDetails.getResolvedFields())
+        );
+    }
+
+    /**
+     * @return constructor arguments, the returned array must not be modified.
+     */
+    public Object[] getConstructorArguments() {
+        return this.constructorArguments.evaluate();
+    }
+
+    /**
+     * @return autowired field arguments, the returned array must not be modified.
+     */
+    public Object[] getFieldArguments() {
+        return this.fieldArguments.evaluate();
+    }
+
+    private static final class ArgumentSlots {
+
+        private final DependencyParam[] dependencyParams;
+
+        /**
+         * Arguments evaluated once, null in the dynamic slots.
+         */
+        private final Object[] arguments;
+
+        /**
+         * Indices of the arguments that are evaluated for each instance.
+         */
+        private final int[] dynamicSlots;
+
+        private ArgumentSlots(Collection<DependencyParam> dependencyParams) {
+            this.dependencyParams = dependencyParams.toArray(DependencyParam[]::new);
+            this.arguments = new Object[this.dependencyParams.length];
+
+            final List<Integer> dynamicSlots = new ArrayList<>();
+            for (int slot = 0; slot < this.dependencyParams.length; slot++) {
+                if (isDynamic(this.dependencyParams[slot])) {
+                    dynamicSlots.add(slot);
+                } else {
+                    this.arguments[slot] = this.dependencyParams[slot].getInstance();
+                }
+            }
+
+            this.dynamicSlots = dynamicSlots.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private Object[] evaluate() {
+            if (this.dynamicSlots.length == 0) {
+                return this.arguments;
+            }
+
+            final Object[] arguments = this.arguments.clone();
+            for (int slot : this.dynamicSlots) {
+                arguments[slot] = this.dependencyParams[slot].getInstance();
+            }
+
+            return arguments;
+        }
+
+        /**
+         * @return true if the dependency can have a different instance for each call.
+         */
+        private static boolean isDynamic(DependencyParam dependencyParam) {
+            if (dependencyParam.getDependencyResolver() != null || dependencyParam instanceof DependencyParamProvider) {
+                return false;
+            }
+
+            if (dependencyParam instanceof DependencyParamCollection) {
+                return true;
+            }
+
+            final ServiceDetails serviceDetails = dependencyParam.getServiceDetails();
+            if (serviceDetails == null) {
+                return false;
+            }
+
+            return serviceDetails.getScopeType() == ScopeType.PROTOTYPE || serviceDetails.isLazyInitializationPending();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.instantiations;
+
+import org.example.container.ServiceDetails;
+
+/**
+ * How the {@link ServiceInstanceFactory} of every service and bean is created.
+ */
+public enum InstantiationStrategy {
+
+    /**
+     * A class is generated per service (see {@link ServiceInstanceFactoryGenerator}). Default.
+     */
+    GENERATED_BYTECODE {
+        @Override
+        public ServiceInstanceFactory createInstanceFactory(ServiceDetails serviceDetails) {
+            return ServiceInstanceFactoryGenerator.createInstanceFactory(serviceDetails);
+        }
+    },
+
+    /**
+     * Composed method handles (see {@link MethodHandleServiceInstanceFactory}),
+     * for environments that do not allow defining classes at runtime.
+     */
+    METHOD_HANDLES {
+        @Override
+        public ServiceInstanceFactory createInstanceFactory(ServiceDetails serviceDetails) {
+            try {
+                return new MethodHandleServiceInstanceFactory(serviceDetails);
+            } catch (IllegalAccessException e) {
+                //The package of the service is not open, only members that are accessible with reflection are used.
+                return new ReflectionServiceInstanceFactory(serviceDetails);
+            }
+        }
+    };
+
+    public abstract ServiceInstanceFactory createInstanceFactory(ServiceDetails serviceDetails);
+}
@@ -0,0 +1,194 @@
+package org.example.instantiations;
+
+import org.example.container.ServiceDetails;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link ServiceInstanceFactory} that does not define any classes at runtime.
+ * <p>
+ * The target constructor (or the bean method) and the autowired fields are bound once into a single
+ * {@code (Object[], Object[])Object} method handle: the constructor is spread over the constructor parameters
+ * and every field is set through its {@link VarHandle} with the matching element of the field instances.
+ * The lifecycle methods are bound to {@code (Object)void} method handles,
+ * except for the post construct method which is bound to {@code (Object)CompletionStage}.
+ * Since the handles are final and composed only of method handle combinators, the JIT can inline them.
+ */
+public class MethodHandleServiceInstanceFactory implements ServiceInstanceFactory {
+
+    private static final MethodType NEW_INSTANCE_TYPE = MethodType.methodType(Object.class, Object[].class, Object[].class);
+
+    private static final MethodType LIFECYCLE_METHOD_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private static final MethodType POST_CONSTRUCT_METHOD_TYPE = MethodType.methodType(CompletionStage.class, Object.class);
+
+    private static final MethodHandle NO_LIFECYCLE_METHOD = MethodHandles.empty(LIFECYCLE_METHOD_TYPE);
+
+    private static final MethodHandle NO_POST_CONSTRUCT_METHOD = MethodHandles.empty(POST_CONSTRUCT_METHOD_TYPE);
+
+    private final MethodHandle newInstance;
+
+    private final MethodHandle postConstruct;
+
+    private final MethodHandle preDestroy;
+
+    /**
+     * @param serviceDetails - the given service or bean.
+     * @throws IllegalAccessException - if the package of the service is not open to this module.
+     */
+    public MethodHandleServiceInstanceFactory(ServiceDetails serviceDetails) throws IllegalAccessException {
+        if (serviceDetails instanceof ServiceBeanDetails) {
+            this.newInstance = bindBeanMethod(((ServiceBeanDetails) serviceDetails).getOriginMethod());
+        } else {
+            this.newInstance = bindConstructorAndFields(serviceDetails);
+        }
+
+        this.postConstruct = bindPostConstructMethod(serviceDetails.getPostConstructMethod());
+        this.preDestroy = bindLifecycleMethod(serviceDetails.getPreDestroyMethod());
+    }
+
+    @Override
+    public Object newInstance(Object[] constructorParams, Object[] autowiredFieldInstances) throws Exception {
+        try {
+            return (Object) this.newInstance.invokeExact(constructorParams, autowiredFieldInstances);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t.getMessage(), t);
+        }
+    }
+
+    @Override
+    public CompletionStage<?> postConstruct(Object instance) throws Exception {
+        try {
+            return (CompletionStage<?>) this.postConstruct.invokeExact(instance);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t.getMessage(), t);
+        }
+    }
+
+    @Override
+    public void preDestroy(Object instance) throws Exception {
+        invokeLifecycleMethod(this.preDestroy, instance);
+    }
+
+    private static void invokeLifecycleMethod(MethodHandle lifecycleMethod, Object instance) throws Exception {
+        try {
+            lifecycleMethod.invokeExact(instance);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t.getMessage(), t);
+        }
+    }
+
+    /**
+     * Composes {@code injectFields(constructor(constructorParams...), autowiredFieldInstances)}.
+     */
+    private static MethodHandle bindConstructorAndFields(ServiceDetails serviceDetails) throws IllegalAccessException {
+        final Class<?> serviceType = serviceDetails.getServiceType();
+
+        //(Object[])Service
+        final MethodHandle constructor = lookup(serviceType)
+                .unreflectConstructor(serviceDetails.getTargetConstructor())
+                .asSpreader(Object[].class, serviceDetails.getTargetConstructor().getParameterCount());
+
+        //(Service, Object[])Service, the fields are folded in reverse, so that they are set in their declared order.
+        MethodHandle injectFields = MethodHandles.dropArguments(
+                MethodHandles.identity(serviceType), 1, Object[].class
+        );
+
+        final Field[] autowireAnnotatedFields = serviceDetails.getAutowireAnnotatedFields();
+        for (int i = autowireAnnotatedFields.length - 1; i >= 0; i--) {
+            final MethodHandle fieldElement = MethodHandles.insertArguments(
+                    MethodHandles.arrayElementGetter(Object[].class), 1, i
+            );
+
+            //(Service, Object[])void
+            final MethodHandle setField = MethodHandles.filterArguments(
+                    bindFieldSetter(autowireAnnotatedFields[i]).asType(
+                            MethodType.methodType(void.class, serviceType, Object.class)
+                    ),
+                    1,
+                    fieldElement
+            );
+
+            injectFields = MethodHandles.foldArguments(injectFields, setField);
+        }
+
+        return MethodHandles.filterArguments(injectFields, 0, constructor).asType(NEW_INSTANCE_TYPE);
+    }
+
+    /**
+     * Final fields cannot be set through a {@link VarHandle}, their setter is used instead.
+     */
+    private static MethodHandle bindFieldSetter(Field field) throws IllegalAccessException {
+        if (Modifier.isFinal(field.getModifiers())) {
+            return lookup(field.getDeclaringClass()).unreflectSetter(field);
+        }
+
+        return lookup(field.getDeclaringClass())
+                .unreflectVarHandle(field)
+                .toMethodHandle(VarHandle.AccessMode.SET);
+    }
+
+    /**
+     * @return {@code (Object[], Object[])Object} handle that invokes the bean method on the first constructor param.
+     */
+    private static MethodHandle bindBeanMethod(Method beanMethod) throws IllegalAccessException {
+        final MethodHandle bean = lookup(beanMethod.getDeclaringClass()).unreflect(beanMethod);
+        final MethodHandle rootInstance = MethodHandles.insertArguments(
+                MethodHandles.arrayElementGetter(Object[].class), 1, 0
+        );
+
+        return MethodHandles.dropArguments(
+                MethodHandles.filterArguments(bean.asType(MethodType.methodType(Object.class, Object.class)), 0, rootInstance),
+                1,
+                Object[].class
+        ).asType(NEW_INSTANCE_TYPE);
+    }
+
+    /**
+     * Post construct methods that do not return a {@link CompletionStage} return null.
+     */
+    private static MethodHandle bindPostConstructMethod(Method postConstructMethod) throws IllegalAccessException {
+        if (postConstructMethod == null) {
+            return NO_POST_CONSTRUCT_METHOD;
+        }
+
+        if (CompletionStage.class.isAssignableFrom(postConstructMethod.getReturnType())) {
+            return lookup(postConstructMethod.getDeclaringClass())
+                    .unreflect(postConstructMethod)
+                    .asType(POST_CONSTRUCT_METHOD_TYPE);
+        }
+
+        return bindLifecycleMethod(postConstructMethod).asType(POST_CONSTRUCT_METHOD_TYPE);
+    }
+
+    private static MethodHandle bindLifecycleMethod(Method lifecycleMethod) throws IllegalAccessException {
+        if (lifecycleMethod == null) {
+            return NO_LIFECYCLE_METHOD;
+        }
+
+        return lookup(lifecycleMethod.getDeclaringClass())
+                .unreflect(lifecycleMethod)
+                .asType(LIFECYCLE_METHOD_TYPE);
+    }
+
+    /**
+     * Full privilege lookup in the given class, so that private members can be bound
+     * (as long as the module of the class is open to this module).
+     */
+    private static MethodHandles.Lookup lookup(Class<?> cls) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+    }
+}
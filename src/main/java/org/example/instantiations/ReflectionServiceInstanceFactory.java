@@ -0,0 +1,75 @@
+package org.example.instantiations;
+
+import org.example.container.ServiceDetails;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link ServiceInstanceFactory} that uses plain reflection.
+ * Used for services which members cannot be accessed by generated code (eg. private constructors or fields).
+ */
+public class ReflectionServiceInstanceFactory implements ServiceInstanceFactory {
+
+    private final Constructor<?> targetConstructor;
+
+    private final Field[] autowireAnnotatedFields;
+
+    /**
+     * The bean method if the factory creates a bean, null otherwise.
+     */
+    private final Method beanMethod;
+
+    private final Method postConstructMethod;
+
+    private final Method preDestroyMethod;
+
+    public ReflectionServiceInstanceFactory(ServiceDetails serviceDetails) {
+        if (serviceDetails instanceof ServiceBeanDetails) {
+            this.targetConstructor = null;
+            this.autowireAnnotatedFields = new Field[0];
+            this.beanMethod = ((ServiceBeanDetails) serviceDetails).getOriginMethod();
+        } else {
+            this.targetConstructor = serviceDetails.getTargetConstructor();
+            this.autowireAnnotatedFields = serviceDetails.getAutowireAnnotatedFields();
+            this.beanMethod = null;
+        }
+
+        this.postConstructMethod = serviceDetails.getPostConstructMethod();
+        this.preDestroyMethod = serviceDetails.getPreDestroyMethod();
+    }
+
+    @Override
+    public Object newInstance(Object[] constructorParams, Object[] autowiredFieldInstances) throws Exception {
+        if (this.beanMethod != null) {
+            return this.beanMethod.invoke(constructorParams[0]);
+        }
+
+        final Object instance = this.targetConstructor.newInstance(constructorParams);
+
+        for (int i = 0; i < this.autowireAnnotatedFields.length; i++) {
+            this.autowireAnnotatedFields[i].set(instance, autowiredFieldInstances[i]);
+        }
+
+        return instance;
+    }
+
+    @Override
+    public CompletionStage<?> postConstruct(Object instance) throws Exception {
+        if (this.postConstructMethod == null) {
+            return null;
+        }
+
+        final Object result = this.postConstructMethod.invoke(instance);
+        return result instanceof CompletionStage ? (CompletionStage<?>) result : null;
+    }
+
+    @Override
+    public void preDestroy(Object instance) throws Exception {
+        if (this.preDestroyMethod != null) {
+            this.preDestroyMethod.invoke(instance);
+        }
+    }
+}
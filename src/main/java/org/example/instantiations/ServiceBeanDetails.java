@@ -6,6 +6,7 @@ import org.example.util.ObjectInstantiationUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 
 /**
@@ -45,6 +46,11 @@ public class ServiceBeanDetails extends ServiceDetails {
         return this.rootService;
     }
 
+    @Override
+    public Type getGenericServiceType() {
+        return this.beanMethod.getGenericReturnType();
+    }
+
 //    @Override
 //    public Object getProxyInstance() {
 //        if (super.getProxyInstance() != null) {
@@ -59,13 +65,14 @@ public class ServiceBeanDetails extends ServiceDetails {
 //    }
 @Override
 public Object getInstance() {
+    super.ensureInstantiated();
+
     if (super.getScopeType() == ScopeType.PROTOTYPE) {
         if (super.getActualInstance() == null) {
             return null;
         }
 
-        if (!super.instanceRequested) {
-            super.instanceRequested = true;
+        if (super.claimInitialInstance()) {
             return super.getActualInstance();
         }
 
@@ -0,0 +1,38 @@
+package org.example.instantiations;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Creates instances of a single service or bean and runs their lifecycle methods.
+ * <p>
+ * Created once per {@link org.example.container.ServiceDetails} and used for every instance of the service,
+ * so that the members of the service are looked up and bound only once.
+ * See {@link InstantiationStrategy} for the available implementations.
+ */
+public interface ServiceInstanceFactory {
+
+    /**
+     * Calls the target constructor and sets the autowired fields.
+     * For beans the bean method is invoked on the only constructor parameter, the instance of the root service.
+     *
+     * @param constructorParams       - instances of the constructor parameters.
+     * @param autowiredFieldInstances - instances of the autowired fields.
+     * @return the new instance.
+     */
+    Object newInstance(Object[] constructorParams, Object[] autowiredFieldInstances) throws Exception;
+
+    /**
+     * Invokes the post construct method if the service has one.
+     *
+     * @param instance - instance created by this factory.
+     * @return the stage returned by the post construct method or null if it returns void.
+     */
+    CompletionStage<?> postConstruct(Object instance) throws Exception;
+
+    /**
+     * Invokes the pre destroy method if the service has one.
+     *
+     * @param instance - instance created by this factory.
+     */
+    void preDestroy(Object instance) throws Exception;
+}
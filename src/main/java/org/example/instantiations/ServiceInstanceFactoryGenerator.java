@@ -0,0 +1,315 @@
+package org.example.instantiations;
+
+import javassist.CannotCompileException;
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+import org.example.container.ServiceDetails;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a {@link ServiceInstanceFactory} class per service with javassist.
+ * <p>
+ * The generated factory calls the target constructor (or the bean method), assigns the autowired fields and invokes
+ * the post construct and pre destroy methods directly instead of through {@link Constructor#newInstance},
+ * {@link Field#set} and {@link Method#invoke}.
+ * It is defined in the package and class loader of the service (or the root service of a bean), so it can access
+ * all non private members of that package.
+ * Services with members that it cannot access get a {@link ReflectionServiceInstanceFactory}.
+ */
+public class ServiceInstanceFactoryGenerator {
+
+    private static final String FACTORY_CLASS_SUFFIX = "$$InstanceFactory$";
+
+    private static final AtomicInteger FACTORY_COUNTER = new AtomicInteger();
+
+    private static final ClassPool CLASS_POOL = createClassPool();
+
+    /**
+     * Class loaders which are already on the class path of {@link #CLASS_POOL}.
+     */
+    private static final Set<ClassLoader> CLASS_POOL_LOADERS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * @param serviceDetails - the given service.
+     * @return generated factory for the service or a reflection based one if it cannot be generated.
+     */
+    public static ServiceInstanceFactory createInstanceFactory(ServiceDetails serviceDetails) {
+        if (!canGenerate(serviceDetails)) {
+            return new ReflectionServiceInstanceFactory(serviceDetails);
+        }
+
+        try {
+            return generateInstanceFactory(serviceDetails);
+        } catch (CannotCompileException | NotFoundException | ReflectiveOperationException | LinkageError e) {
+            //The class loader of the service does not allow defining classes, use reflection instead.
+            return new ReflectionServiceInstanceFactory(serviceDetails);
+        }
+    }
+
+    private static ServiceInstanceFactory generateInstanceFactory(ServiceDetails serviceDetails)
+            throws CannotCompileException, NotFoundException, ReflectiveOperationException {
+        final Class<?> hostType = getHostType(serviceDetails);
+        final String newInstanceSource = serviceDetails instanceof ServiceBeanDetails
+                ? createNewBeanInstanceSource((ServiceBeanDetails) serviceDetails)
+                : createNewInstanceSource(serviceDetails);
+        final String postConstructSource = createPostConstructMethodSource(serviceDetails.getPostConstructMethod());
+        final String preDestroySource = createLifecycleMethodSource("preDestroy", serviceDetails.getPreDestroyMethod());
+
+        final Class<?> factoryClass;
+        synchronized (CLASS_POOL) {
+            if (hostType.getClassLoader() != null && CLASS_POOL_LOADERS.add(hostType.getClassLoader())) {
+                CLASS_POOL.appendClassPath(new LoaderClassPath(hostType.getClassLoader()));
+            }
+
+            final CtClass factory = CLASS_POOL.makeClass(
+                    hostType.getName() + FACTORY_CLASS_SUFFIX + FACTORY_COUNTER.incrementAndGet()
+            );
+
+            try {
+                factory.addInterface(CLASS_POOL.get(ServiceInstanceFactory.class.getName()));
+                factory.addConstructor(CtNewConstructor.defaultConstructor(factory));
+                factory.addMethod(CtNewMethod.make(newInstanceSource, factory));
+                factory.addMethod(CtNewMethod.make(postConstructSource, factory));
+                factory.addMethod(CtNewMethod.make(preDestroySource, factory));
+
+                factoryClass = factory.toClass(hostType);
+            } finally {
+                factory.detach();
+            }
+        }
+
+        return (ServiceInstanceFactory) factoryClass.getDeclaredConstructor().newInstance();
+    }
+
+    private static String createNewInstanceSource(ServiceDetails serviceDetails) {
+        final Class<?> serviceType = serviceDetails.getServiceType();
+        final Class<?>[] parameterTypes = serviceDetails.getTargetConstructor().getParameterTypes();
+
+        final StringBuilder source = new StringBuilder();
+        source.append("public Object newInstance(Object[] constructorParams, Object[] autowiredFieldInstances) {\n");
+        source.append(String.format("    %s instance = new %s(", getSourceName(serviceType), getSourceName(serviceType)));
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                source.append(", ");
+            }
+
+            source.append(castFromObject(parameterTypes[i], "constructorParams[" + i + "]"));
+        }
+        source.append(");\n");
+
+        final Field[] autowireAnnotatedFields = serviceDetails.getAutowireAnnotatedFields();
+        for (int i = 0; i < autowireAnnotatedFields.length; i++) {
+            final Field field = autowireAnnotatedFields[i];
+            source.append(String.format("    ((%s) instance).%s = %s;\n",
+                    getSourceName(field.getDeclaringClass()),
+                    field.getName(),
+                    castFromObject(field.getType(), "autowiredFieldInstances[" + i + "]")
+            ));
+        }
+
+        source.append("    return instance;\n}");
+        return source.toString();
+    }
+
+    private static String createNewBeanInstanceSource(ServiceBeanDetails serviceBeanDetails) {
+        final Method originMethod = serviceBeanDetails.getOriginMethod();
+
+        return String.format(
+                "public Object newInstance(Object[] constructorParams, Object[] autowiredFieldInstances) {\n"
+                        + "    return %s;\n}",
+                box(originMethod.getReturnType(), String.format("((%s) constructorParams[0]).%s()",
+                        getSourceName(originMethod.getDeclaringClass()),
+                        originMethod.getName()
+                ))
+        );
+    }
+
+    /**
+     * Post construct methods that do not return a {@link CompletionStage} return null.
+     */
+    private static String createPostConstructMethodSource(Method postConstructMethod) {
+        final String signature = "public " + CompletionStage.class.getName() + " postConstruct(Object instance) {\n";
+        if (postConstructMethod == null) {
+            return signature + "    return null;\n}";
+        }
+
+        final String invocation = String.format("((%s) instance).%s()",
+                getSourceName(postConstructMethod.getDeclaringClass()),
+                postConstructMethod.getName()
+        );
+
+        if (CompletionStage.class.isAssignableFrom(postConstructMethod.getReturnType())) {
+            return signature + "    return " + invocation + ";\n}";
+        }
+
+        return signature + "    " + invocation + ";\n    return null;\n}";
+    }
+
+    private static String createLifecycleMethodSource(String factoryMethodName, Method lifecycleMethod) {
+        if (lifecycleMethod == null) {
+            return String.format("public void %s(Object instance) {\n}", factoryMethodName);
+        }
+
+        return String.format("public void %s(Object instance) {\n    ((%s) instance).%s();\n}",
+                factoryMethodName,
+                getSourceName(lifecycleMethod.getDeclaringClass()),
+                lifecycleMethod.getName()
+        );
+    }
+
+    /**
+     * The javassist compiler does not unbox, so primitive values are unboxed explicitly.
+     */
+    private static String castFromObject(Class<?> type, String expression) {
+        if (!type.isPrimitive()) {
+            return String.format("(%s) %s", getSourceName(type), expression);
+        }
+
+        return String.format("((%s) %s).%sValue()", getWrapperType(type), expression, type.getName());
+    }
+
+    /**
+     * The javassist compiler does not box either, so primitive bean values are boxed explicitly.
+     */
+    private static String box(Class<?> type, String expression) {
+        if (!type.isPrimitive()) {
+            return expression;
+        }
+
+        return String.format("%s.valueOf(%s)", getWrapperType(type), expression);
+    }
+
+    private static String getWrapperType(Class<?> primitiveType) {
+        if (primitiveType == boolean.class) {
+            return Boolean.class.getName();
+        } else if (primitiveType == char.class) {
+            return Character.class.getName();
+        } else if (primitiveType == int.class) {
+            return Integer.class.getName();
+        }
+
+        final String name = primitiveType.getName();
+        return "java.lang." + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String getSourceName(Class<?> type) {
+        if (type.isArray()) {
+            return getSourceName(type.getComponentType()) + "[]";
+        }
+
+        return type.getName();
+    }
+
+    /**
+     * Beans are created by their root service, so their factory is defined next to it.
+     */
+    private static Class<?> getHostType(ServiceDetails serviceDetails) {
+        if (serviceDetails instanceof ServiceBeanDetails) {
+            return ((ServiceBeanDetails) serviceDetails).getRootService().getServiceType();
+        }
+
+        return serviceDetails.getServiceType();
+    }
+
+    /**
+     * The generated factory is in the package of the service, so it can only be generated if the service,
+     * its constructor, autowired fields and lifecycle methods and all of their types can be accessed from there.
+     * Final fields are assigned with reflection only.
+     */
+    private static boolean canGenerate(ServiceDetails serviceDetails) {
+        final Class<?> serviceType = getHostType(serviceDetails);
+        if (!isAccessible(serviceType, serviceType)
+                || !isAccessible(serviceDetails.getPostConstructMethod(), serviceType)
+                || (serviceDetails.getPostConstructMethod() != null
+                && !isAccessible(serviceDetails.getPostConstructMethod().getReturnType(), serviceType))
+                || !isAccessible(serviceDetails.getPreDestroyMethod(), serviceType)) {
+            return false;
+        }
+
+        if (serviceDetails instanceof ServiceBeanDetails) {
+            final Method originMethod = ((ServiceBeanDetails) serviceDetails).getOriginMethod();
+            return isAccessible(originMethod, serviceType) && isAccessible(originMethod.getReturnType(), serviceType);
+        }
+
+        if (!isAccessible(serviceDetails.getTargetConstructor(), serviceType)) {
+            return false;
+        }
+
+        for (Class<?> parameterType : serviceDetails.getTargetConstructor().getParameterTypes()) {
+            if (!isAccessible(parameterType, serviceType)) {
+                return false;
+            }
+        }
+
+        for (Field field : serviceDetails.getAutowireAnnotatedFields()) {
+            if (Modifier.isFinal(field.getModifiers())
+                    || !isAccessible(field, serviceType)
+                    || !isAccessible(field.getType(), serviceType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isAccessible(Member member, Class<?> serviceType) {
+        if (member == null) {
+            return true;
+        }
+
+        final int modifiers = member.getModifiers();
+        if (Modifier.isPrivate(modifiers) || !isAccessible(member.getDeclaringClass(), serviceType)) {
+            return false;
+        }
+
+        return Modifier.isPublic(modifiers) || isSamePackage(member.getDeclaringClass(), serviceType);
+    }
+
+    private static boolean isAccessible(Class<?> type, Class<?> serviceType) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+
+        if (type.isPrimitive()) {
+            return true;
+        }
+
+        if (Modifier.isPrivate(type.getModifiers())) {
+            return false;
+        }
+
+        if (!Modifier.isPublic(type.getModifiers()) && !isSamePackage(type, serviceType)) {
+            return false;
+        }
+
+        return type.getEnclosingClass() == null || isAccessible(type.getEnclosingClass(), serviceType);
+    }
+
+    private static boolean isSamePackage(Class<?> type, Class<?> serviceType) {
+        return type.getClassLoader() == serviceType.getClassLoader()
+                && Objects.equals(type.getPackageName(), serviceType.getPackageName());
+    }
+
+    private static ClassPool createClassPool() {
+        final ClassPool classPool = new ClassPool(true);
+        classPool.appendClassPath(new ClassClassPath(ServiceInstanceFactory.class));
+
+        return classPool;
+    }
+}
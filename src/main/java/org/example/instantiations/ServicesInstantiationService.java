@@ -1,5 +1,6 @@
 package org.example.instantiations;
 
+import org.example.container.DependencyGraph;
 import org.example.container.ServiceDetails;
 import org.example.exceptions.ServiceInstantiationException;
 
@@ -7,5 +8,6 @@ import java.util.Collection;
 import java.util.Set;
 
 public interface ServicesInstantiationService {
-    Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices) throws ServiceInstantiationException;
+    Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices,
+                                                           DependencyGraph dependencyGraph) throws ServiceInstantiationException;
 }
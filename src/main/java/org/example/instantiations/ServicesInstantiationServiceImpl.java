@@ -1,8 +1,11 @@
 package org.example.instantiations;
 
+import org.example.annotations.Lazy;
 import org.example.annotations.ScopeType;
-import org.example.container.DependencyResolveService;
+import org.example.configs.InstantiationConfiguration;
+import org.example.container.DependencyGraph;
 import org.example.container.ServiceDetails;
+import org.example.exceptions.ServiceInstantiationException;
 import org.example.util.ObjectInstantiationUtils;
 import org.example.util.ProxyUtils;
 
@@ -10,31 +13,50 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * {@link ServicesInstantiationService} implementation.
  * <p>
  * Responsible for creating the initial instances or all services and beans.
+ * <p>
+ * If {@link InstantiationConfiguration#getInstantiationExecutor()} is set, every service is scheduled on it
+ * as soon as all of its dependencies are ready, otherwise services are instantiated one by one on the calling thread
+ * in the order of the {@link DependencyGraph}, deferring the services whose dependencies are not ready yet.
+ * <p>
+ * A service is ready once its post construct method has completed (see {@link ServiceDetails#getReadiness()}).
+ * Asynchronous post construct methods and the stages returned by post construct methods hold back only
+ * the services that depend on them, so this service may return before every service is ready.
  */
 public class ServicesInstantiationServiceImpl implements ServicesInstantiationService {
 
-    private final DependencyResolveService dependencyResolveService;
+    private static final String INTERRUPTED_MSG = "Interrupted while waiting for services to become ready.";
 
-    public ServicesInstantiationServiceImpl(DependencyResolveService dependencyResolveService) {
-        this.dependencyResolveService = dependencyResolveService;
+    private final InstantiationConfiguration configuration;
+
+    public ServicesInstantiationServiceImpl(InstantiationConfiguration configuration) {
+        this.configuration = configuration;
     }
 
     /**
-     * @param mappedServices -
+     * @param mappedServices  -
+     * @param dependencyGraph - resolved graph of the mapped and provided services.
      * @return - collection of all instantiated services and beans.
      */
     @Override
-    public Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices) {
-        final List<EnqueuedServiceDetails> enqueuedServiceDetails = this.dependencyResolveService
-                .resolveDependencies(mappedServices);
-
-        for (EnqueuedServiceDetails service : enqueuedServiceDetails) {
-            this.instantiateService(service);
+    public Collection<ServiceDetails> instantiateServicesAndBeans(Set<ServiceDetails> mappedServices,
+                                                                  DependencyGraph dependencyGraph) {
+        final Executor executor = this.configuration.getInstantiationExecutor();
+        if (executor == null) {
+            this.instantiateSequentially(dependencyGraph);
+        } else {
+            this.instantiateInParallel(dependencyGraph, executor);
         }
 
         final List<ServiceDetails> allServicesAndBeans = new ArrayList<>();
@@ -46,16 +68,243 @@ public class ServicesInstantiationServiceImpl implements ServicesInstantiationSe
         return allServicesAndBeans;
     }
 
+    /**
+     * Instantiates the services one by one on the calling thread in the order of the {@link DependencyGraph}.
+     * A service whose dependencies are not ready yet is deferred until they are,
+     * the services after it in the order are not held back.
+     *
+     * @param dependencyGraph - resolved services.
+     */
+    private void instantiateSequentially(DependencyGraph dependencyGraph) {
+        final int size = dependencyGraph.size();
+
+        //Completes once the service is instantiated and ready, unlike its readiness which is set on instantiation.
+        final List<CompletableFuture<Void>> readyServices = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            readyServices.add(new CompletableFuture<>());
+        }
+
+        final BlockingQueue<Runnable> deferredServices = new LinkedBlockingQueue<>();
+        final AtomicInteger remainingServices = new AtomicInteger(size);
+
+        for (int id : dependencyGraph.getInstantiationOrder()) {
+            final CompletableFuture<Void> dependencies = this.getDependenciesReadiness(id, dependencyGraph, readyServices);
+            final Runnable instantiation = () -> {
+                ObjectInstantiationUtils.awaitPostConstruct(dependencies);
+                this.instantiateService(dependencyGraph.getEnqueuedService(id));
+                this.propagateReadiness(dependencyGraph.getService(id), readyServices.get(id));
+                remainingServices.decrementAndGet();
+            };
+
+            if (dependencies.isDone()) {
+                instantiation.run();
+            } else {
+                dependencies.whenComplete((result, throwable) -> deferredServices.add(instantiation));
+            }
+
+            for (Runnable deferredService = deferredServices.poll(); deferredService != null;
+                 deferredService = deferredServices.poll()) {
+                deferredService.run();
+            }
+        }
+
+        try {
+            while (remainingServices.get() > 0) {
+                deferredServices.take().run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceInstantiationException(INTERRUPTED_MSG, e);
+        }
+    }
+
+    private CompletableFuture<Void> getDependenciesReadiness(int id,
+                                                             DependencyGraph dependencyGraph,
+                                                             List<CompletableFuture<Void>> readyServices) {
+        final int[] dependencyIds = dependencyGraph.getDependencyIds(id);
+        final CompletableFuture<?>[] dependencies = new CompletableFuture<?>[dependencyIds.length];
+        for (int i = 0; i < dependencyIds.length; i++) {
+            dependencies[i] = readyServices.get(dependencyIds[i]);
+        }
+
+        return CompletableFuture.allOf(dependencies);
+    }
+
+    private void propagateReadiness(ServiceDetails serviceDetails, CompletableFuture<Void> ready) {
+        serviceDetails.getReadiness().whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                ready.complete(null);
+            } else {
+                ready.completeExceptionally(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+            }
+        });
+    }
+
+    /**
+     * Schedules every service once all of its dependencies are ready and waits until every service is instantiated.
+     * After the first failure no more services are started, the tasks that are already submitted are waited for
+     * (they return right away unless they are already instantiating a service) and then the failure is thrown.
+     *
+     * @param dependencyGraph - resolved services.
+     * @param executor        - executor on which the services are instantiated.
+     */
+    private void instantiateInParallel(DependencyGraph dependencyGraph, Executor executor) {
+        final int size = dependencyGraph.size();
+        if (size == 0) {
+            return;
+        }
+
+        final AtomicIntegerArray remainingDependencies = new AtomicIntegerArray(size);
+        for (int id = 0; id < size; id++) {
+            remainingDependencies.set(id, dependencyGraph.getDependencyIds(id).length);
+        }
+
+        final AtomicInteger remainingServices = new AtomicInteger(size);
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
+        final InFlightTasks inFlightTasks = new InFlightTasks();
+
+        for (int id = 0; id < size; id++) {
+            if (remainingDependencies.get(id) == 0) {
+                this.scheduleService(
+                        id, dependencyGraph, executor, remainingDependencies, remainingServices, completion, inFlightTasks
+                );
+            }
+        }
+
+        try {
+            completion.join();
+        } catch (CompletionException ex) {
+            inFlightTasks.awaitDrained();
+
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+
+            throw new ServiceInstantiationException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    private void scheduleService(int id,
+                                 DependencyGraph dependencyGraph,
+                                 Executor executor,
+                                 AtomicIntegerArray remainingDependencies,
+                                 AtomicInteger remainingServices,
+                                 CompletableFuture<Void> completion,
+                                 InFlightTasks inFlightTasks) {
+        if (completion.isDone()) {
+            return;
+        }
+
+        final Runnable task = () -> {
+            try {
+                if (completion.isDone()) {
+                    return;
+                }
+
+                try {
+                    this.runWithContextClassLoader(() -> this.instantiateService(dependencyGraph.getEnqueuedService(id)));
+                } catch (RuntimeException ex) {
+                    completion.completeExceptionally(ex);
+                    return;
+                } catch (Error error) {
+                    //The caller rethrows it as it is, it is not turned into an instantiation failure.
+                    completion.completeExceptionally(error);
+                    throw error;
+                }
+
+                dependencyGraph.getService(id).getReadiness().whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        completion.completeExceptionally(throwable instanceof CompletionException
+                                ? throwable.getCause()
+                                : throwable);
+                        return;
+                    }
+
+                    for (int dependant : dependencyGraph.getDependantIds(id)) {
+                        if (remainingDependencies.decrementAndGet(dependant) == 0) {
+                            this.scheduleService(
+                                    dependant, dependencyGraph, executor, remainingDependencies,
+                                    remainingServices, completion, inFlightTasks
+                            );
+                        }
+                    }
+                });
+
+                if (remainingServices.decrementAndGet() == 0) {
+                    completion.complete(null);
+                }
+            } finally {
+                inFlightTasks.finish();
+            }
+        };
+
+        inFlightTasks.start();
+        try {
+            executor.execute(task);
+        } catch (RuntimeException ex) {
+            inFlightTasks.finish();
+            completion.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Creates the instances of the given service and sets its readiness.
+     * A post construct method that has already failed is thrown right away.
+     */
     private void instantiateService(EnqueuedServiceDetails enqueuedServiceDetails) {
         final ServiceDetails serviceDetails = enqueuedServiceDetails.getServiceDetails();
-        final Object[] constructorInstances = enqueuedServiceDetails.getConstructorInstances();
+        this.registerResolvedDependencies(enqueuedServiceDetails);
+        this.registerInstantiationStrategy(serviceDetails);
+
+        if (serviceDetails.getActualInstance() == null && this.isLazy(serviceDetails)) {
+            //Lazy services are created when they are accessed, which waits for their post construct method.
+            serviceDetails.setLazyInitialization(
+                    () -> serviceDetails.setReadiness(this.createInstances(enqueuedServiceDetails)),
+                    ProxyUtils.createLazyProxyInstance(serviceDetails)
+            );
+
+            //Beans are created once their service is ready.
+            for (ServiceBeanDetails beanDetails : serviceDetails.getBeans()) {
+                beanDetails.setLazyInitialization(() -> {
+                    serviceDetails.startLazyInitialization();
+                    beanDetails.setReadiness(serviceDetails.getReadiness());
+                }, null);
+            }
+
+            return;
+        }
+
+        final CompletableFuture<Void> readiness = this.createInstances(enqueuedServiceDetails);
+        serviceDetails.setReadiness(readiness);
+
+        if (readiness.isCompletedExceptionally()) {
+            ObjectInstantiationUtils.awaitPostConstruct(readiness);
+        }
+    }
+
+    /**
+     * Creates the instance of a service (unless it already has one) and its proxy.
+     * The beans are created once the post construct method of the service has completed,
+     * since their bean methods are invoked on the instance of the service.
+     *
+     * @param enqueuedServiceDetails - service with resolved dependencies.
+     * @return completes when the service and its beans are ready.
+     */
+    private CompletableFuture<Void> createInstances(EnqueuedServiceDetails enqueuedServiceDetails) {
+        final ServiceDetails serviceDetails = enqueuedServiceDetails.getServiceDetails();
 
         //In case a service provided by the config already came with an instance.
-        if (enqueuedServiceDetails.getServiceDetails().getInstance() == null) {
-            ObjectInstantiationUtils.createInstance(
+        CompletableFuture<Void> postConstruct = CompletableFuture.completedFuture(null);
+        if (serviceDetails.getActualInstance() == null) {
+            postConstruct = ObjectInstantiationUtils.createInitialInstance(
                     serviceDetails,
-                    constructorInstances,
-                    enqueuedServiceDetails.getFieldInstances()
+                    enqueuedServiceDetails.getConstructorInstances(),
+                    enqueuedServiceDetails.getFieldInstances(),
+                    this.configuration.getInstantiationExecutor()
             );
         }
 
@@ -63,8 +312,41 @@ public class ServicesInstantiationServiceImpl implements ServicesInstantiationSe
             ProxyUtils.createProxyInstance(serviceDetails, enqueuedServiceDetails.getConstructorInstances());
         }
 
-        this.registerResolvedDependencies(enqueuedServiceDetails);
-        this.registerBeans(serviceDetails);
+        //The stage may be completed by any thread, eg. one of the application.
+        return postConstruct.thenRun(() -> this.runWithContextClassLoader(() -> this.registerBeans(serviceDetails)));
+    }
+
+    /**
+     * Runs the given action with the class loader of the scanning configuration as context class loader.
+     */
+    private void runWithContextClassLoader(Runnable action) {
+        final Thread currentThread = Thread.currentThread();
+        final ClassLoader oldCl = currentThread.getContextClassLoader();
+        try {
+            currentThread.setContextClassLoader(this.configuration.and().scanning().getClassLoader());
+            action.run();
+        } finally {
+            currentThread.setContextClassLoader(oldCl);
+        }
+    }
+
+    /**
+     * Only SINGLETON and PROXY services can be lazy.
+     *
+     * @return the value of {@link Lazy} if the service is annotated with it,
+     * otherwise {@link InstantiationConfiguration#isLazyByDefault()}.
+     */
+    private boolean isLazy(ServiceDetails serviceDetails) {
+        if (serviceDetails.getScopeType() == ScopeType.PROTOTYPE) {
+            return false;
+        }
+
+        final Lazy lazy = serviceDetails.getServiceType().getAnnotation(Lazy.class);
+        if (lazy != null) {
+            return lazy.value();
+        }
+
+        return this.configuration.isLazyByDefault();
     }
 
     /**
@@ -81,10 +363,55 @@ public class ServicesInstantiationServiceImpl implements ServicesInstantiationSe
         }
     }
 
+    /**
+     * Every factory of the service and its beans, including the ones created later for reloads
+     * or services that came with an instance, is created with the configured strategy.
+     */
+    private void registerInstantiationStrategy(ServiceDetails serviceDetails) {
+        final InstantiationStrategy instantiationStrategy = this.configuration.getInstantiationStrategy();
+
+        serviceDetails.setInstantiationStrategy(instantiationStrategy);
+        for (ServiceBeanDetails beanDetails : serviceDetails.getBeans()) {
+            beanDetails.setInstantiationStrategy(instantiationStrategy);
+        }
+    }
+
     private void registerResolvedDependencies(EnqueuedServiceDetails enqueuedServiceDetails) {
         final ServiceDetails serviceDetails = enqueuedServiceDetails.getServiceDetails();
 
         serviceDetails.setResolvedConstructorParams(enqueuedServiceDetails.getConstructorParams());
         serviceDetails.setResolvedFields(enqueuedServiceDetails.getFieldDependencies());
     }
+
+    /**
+     * Number of submitted instantiation tasks that have not finished yet.
+     */
+    private static final class InFlightTasks {
+
+        private int count;
+
+        synchronized void start() {
+            this.count++;
+        }
+
+        synchronized void finish() {
+            if (--this.count == 0) {
+                this.notifyAll();
+            }
+        }
+
+        /**
+         * Waits until every submitted task has finished, so that no service is still being instantiated.
+         */
+        synchronized void awaitDrained() {
+            try {
+                while (this.count > 0) {
+                    this.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceInstantiationException(INTERRUPTED_MSG, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package org.example.model;
+
+import java.util.List;
+
+/**
+ * Result of scanning a single service stored in the scan cache.
+ * <p>
+ * Classes, constructors, fields and methods are kept by name, so that the {@link org.example.container.ServiceDetails}
+ * can be rebuilt with direct lookups instead of iterating all declared members of the class hierarchy.
+ * Members are stored in the format {@code declaringClassName#memberName}.
+ */
+public class CachedServiceDto {
+
+    private final String className;
+
+    /**
+     * Type of the annotation used to map the service or null.
+     */
+    private final String annotationType;
+
+    private final List<String> constructorParameterTypes;
+
+    private final String instanceName;
+
+    private final String postConstructMethod;
+
+    private final String preDestroyMethod;
+
+    private final String scopeType;
+
+    private final List<String> autowiredFields;
+
+    private final List<CachedBeanDto> beans;
+
+    /**
+     * Names of the class and its superclasses. The cached result is valid only if none of them has changed.
+     */
+    private final List<String> classHierarchy;
+
+    public CachedServiceDto(String className,
+                            String annotationType,
+                            List<String> constructorParameterTypes,
+                            String instanceName,
+                            String postConstructMethod,
+                            String preDestroyMethod,
+                            String scopeType,
+                            List<String> autowiredFields,
+                            List<CachedBeanDto> beans,
+                            List<String> classHierarchy) {
+        this.className = className;
+        this.annotationType = annotationType;
+        this.constructorParameterTypes = constructorParameterTypes;
+        this.instanceName = instanceName;
+        this.postConstructMethod = postConstructMethod;
+        this.preDestroyMethod = preDestroyMethod;
+        this.scopeType = scopeType;
+        this.autowiredFields = autowiredFields;
+        this.beans = beans;
+        this.classHierarchy = classHierarchy;
+    }
+
+    public String getClassName() {
+        return this.className;
+    }
+
+    public String getAnnotationType() {
+        return this.annotationType;
+    }
+
+    public List<String> getConstructorParameterTypes() {
+        return this.constructorParameterTypes;
+    }
+
+    public String getInstanceName() {
+        return this.instanceName;
+    }
+
+    public String getPostConstructMethod() {
+        return this.postConstructMethod;
+    }
+
+    public String getPreDestroyMethod() {
+        return this.preDestroyMethod;
+    }
+
+    public String getScopeType() {
+        return this.scopeType;
+    }
+
+    public List<String> getAutowiredFields() {
+        return this.autowiredFields;
+    }
+
+    public List<CachedBeanDto> getBeans() {
+        return this.beans;
+    }
+
+    public List<String> getClassHierarchy() {
+        return this.classHierarchy;
+    }
+
+    /**
+     * Bean method of a cached service.
+     */
+    public static class CachedBeanDto {
+
+        private final String methodName;
+
+        private final String annotationType;
+
+        private final String scopeType;
+
+        private final String instanceName;
+
+        public CachedBeanDto(String methodName, String annotationType, String scopeType, String instanceName) {
+            this.methodName = methodName;
+            this.annotationType = annotationType;
+            this.scopeType = scopeType;
+            this.instanceName = instanceName;
+        }
+
+        public String getMethodName() {
+            return this.methodName;
+        }
+
+        public String getAnnotationType() {
+            return this.annotationType;
+        }
+
+        public String getScopeType() {
+            return this.scopeType;
+        }
+
+        public String getInstanceName() {
+            return this.instanceName;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.model;
+
+import java.util.Set;
+
+/**
+ * Simple POJO class that keeps the information read directly from the bytes of a class file.
+ * <p>
+ * This is needed since that way we can decide whether a class is a service candidate
+ * without loading (or initializing) it.
+ */
+public class ClassFileDetails {
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final int ACC_ENUM = 0x4000;
+
+    private static final int ACC_MODULE = 0x8000;
+
+    /**
+     * Binary name of the class (eg. org.example.InitApp).
+     */
+    private final String className;
+
+    /**
+     * Access flags of the class as stored in the class file.
+     */
+    private final int accessFlags;
+
+    /**
+     * Binary names of all annotations from the RuntimeVisibleAnnotations attribute of the class.
+     */
+    private final Set<String> annotationNames;
+
+    public ClassFileDetails(String className, int accessFlags, Set<String> annotationNames) {
+        this.className = className;
+        this.accessFlags = accessFlags;
+        this.annotationNames = annotationNames;
+    }
+
+    public String getClassName() {
+        return this.className;
+    }
+
+    public int getAccessFlags() {
+        return this.accessFlags;
+    }
+
+    public Set<String> getAnnotationNames() {
+        return this.annotationNames;
+    }
+
+    /**
+     * @return false if the class is interface, annotation, enum or module descriptor
+     * and therefore cannot be a service.
+     */
+    public boolean isInstantiable() {
+        return (this.accessFlags & (ACC_INTERFACE | ACC_ANNOTATION | ACC_ENUM | ACC_MODULE)) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return this.className;
+    }
+}
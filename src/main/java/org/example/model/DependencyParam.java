@@ -3,8 +3,10 @@ package org.example.model;
 import org.example.container.ServiceDetails;
 import org.example.middleware.DependencyResolver;
 import org.example.util.DependencyParamUtils;
+import org.example.util.GenericsUtils;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 
 /**
  * Simple POJO class that keeps information about a dependency parameter for a given service.
@@ -13,6 +15,11 @@ public class DependencyParam {
 
     private final Class<?> dependencyType;
 
+    /**
+     * The declared type including its type arguments (eg. Repository&lt;Order&gt;), same as the dependency type for raw types.
+     */
+    private final Type genericDependencyType;
+
     private final String instanceName;
 
     private final Annotation[] annotations;
@@ -27,7 +34,12 @@ public class DependencyParam {
     private Object instance;
 
     public DependencyParam(Class<?> dependencyType, String instanceName, Annotation[] annotations) {
+        this(dependencyType, dependencyType, instanceName, annotations);
+    }
+
+    public DependencyParam(Class<?> dependencyType, Type genericDependencyType, String instanceName, Annotation[] annotations) {
         this.dependencyType = dependencyType;
+        this.genericDependencyType = genericDependencyType;
         this.instanceName = instanceName;
         this.annotations = annotations;
         this.setRequired(true);
@@ -37,6 +49,10 @@ public class DependencyParam {
         return this.dependencyType;
     }
 
+    public Type getGenericDependencyType() {
+        return this.genericDependencyType;
+    }
+
     public String getInstanceName() {
         return this.instanceName;
     }
@@ -61,6 +77,10 @@ public class DependencyParam {
         this.dependencyResolver = dependencyResolver;
     }
 
+    public ServiceDetails getServiceDetails() {
+        return this.serviceDetails;
+    }
+
     public void setServiceDetails(ServiceDetails serviceDetails) {
         this.serviceDetails = serviceDetails;
     }
@@ -74,7 +94,7 @@ public class DependencyParam {
         if (this.dependencyResolver != null) {
             instance = this.instance;
         } else if (this.serviceDetails != null) {
-            instance = this.serviceDetails.getInstance();
+            instance = this.serviceDetails.getInjectableInstance(this.dependencyType);
         } else {
             instance = null;
         }
@@ -90,6 +110,7 @@ public class DependencyParam {
     }
 
     public boolean isCompatible(ServiceDetails serviceDetails) {
-        return DependencyParamUtils.isServiceCompatible(serviceDetails, this.dependencyType, this.instanceName);
+        return DependencyParamUtils.isServiceCompatible(serviceDetails, this.dependencyType, this.instanceName)
+                && GenericsUtils.isAssignable(this.genericDependencyType, serviceDetails.getGenericServiceType());
     }
 }
@@ -20,10 +20,19 @@ public class DependencyParamCollection extends DependencyParam {
                                      Class<?> dependencyType,
                                      String instanceName,
                                      Annotation[] annotations) {
-        super(GenericsUtils.getRawType(parameterizedType), instanceName, annotations);
+        super(
+                GenericsUtils.getRawClass(GenericsUtils.getElementType(parameterizedType)),
+                GenericsUtils.getElementType(parameterizedType),
+                instanceName,
+                annotations
+        );
         this.collectionType = dependencyType;
     }
 
+    public List<ServiceDetails> getAllServiceDetails() {
+        return this.serviceDetails;
+    }
+
     public void setServiceDetails(List<ServiceDetails> serviceDetails) {
         this.serviceDetails = serviceDetails;
     }
@@ -35,7 +44,9 @@ public class DependencyParamCollection extends DependencyParam {
         }
 
         final Collection<Object> collection = CollectionUtils.createInstanceOfCollection(this.collectionType);
-        collection.addAll(this.serviceDetails.stream().map(ServiceDetails::getInstance).collect(Collectors.toList()));
+        collection.addAll(this.serviceDetails.stream()
+                .map(sd -> sd.getInjectableInstance(super.getDependencyType()))
+                .collect(Collectors.toList()));
 
         return collection;
     }
@@ -0,0 +1,58 @@
+package org.example.model;
+
+import org.example.container.Provider;
+import org.example.container.ServiceDetails;
+import org.example.container.ServiceProvider;
+import org.example.util.GenericsUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+
+/**
+ * Dependency of type {@link Provider}.
+ * <p>
+ * It is resolved like a dependency of its type argument,
+ * but the injected instance is a {@link ServiceProvider} of the resolved service.
+ */
+public class DependencyParamProvider extends DependencyParam {
+
+    private Provider<?> provider;
+
+    public DependencyParamProvider(ParameterizedType parameterizedType,
+                                   String instanceName,
+                                   Annotation[] annotations) {
+        super(
+                GenericsUtils.getRawClass(GenericsUtils.getElementType(parameterizedType)),
+                GenericsUtils.getElementType(parameterizedType),
+                instanceName,
+                annotations
+        );
+    }
+
+    @Override
+    public void setServiceDetails(ServiceDetails serviceDetails) {
+        super.setServiceDetails(serviceDetails);
+        this.provider = null;
+    }
+
+    /**
+     * @return the same provider for every call, so that it can be shared by all instances of the service.
+     */
+    @Override
+    public Object getInstance() {
+        if (super.getDependencyResolver() != null) {
+            final Object instance = super.getInstance();
+            return (Provider<Object>) () -> instance;
+        }
+
+        if (super.getServiceDetails() == null) {
+            return super.getInstance();
+        }
+
+        if (this.provider == null) {
+            this.provider = new ServiceProvider<>(super.getServiceDetails());
+        }
+
+        return this.provider;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.processor;
+
+/**
+ * Kinds of occurrences that are recorded for a class in the service index.
+ */
+public enum IndexedElementType {
+    /**
+     * Class annotated with @Service, an alias of it or a service annotation given to the processor.
+     */
+    SERVICE,
+
+    /**
+     * Class that declares @Bean methods.
+     */
+    BEAN,
+
+    /**
+     * Class that uses @NamedInstance on itself or on one of its methods.
+     */
+    NAMED_INSTANCE,
+
+    /**
+     * Class that uses @Scope on itself or on one of its methods.
+     */
+    SCOPE,
+
+    /**
+     * Class that declares a @PostConstruct method.
+     */
+    POST_CONSTRUCT,
+
+    /**
+     * Class that declares a @PreDestroy method.
+     */
+    PRE_DESTROY,
+
+    /**
+     * Class that implements ServiceMethodAspectHandler.
+     */
+    ASPECT_HANDLER
+}
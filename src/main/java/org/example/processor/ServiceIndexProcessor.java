@@ -0,0 +1,284 @@
+package org.example.processor;
+
+import org.example.annotations.AliasFor;
+import org.example.annotations.Bean;
+import org.example.annotations.NamedInstance;
+import org.example.annotations.PostConstruct;
+import org.example.annotations.PreDestroy;
+import org.example.annotations.Scope;
+import org.example.annotations.Service;
+import org.example.constant.Constants;
+import org.example.handler.ServiceMethodAspectHandler;
+import org.example.util.ServiceIndexUtils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Optional annotation processor that writes a service index to {@link Constants#SERVICE_INDEX_LOCATION}.
+ * <p>
+ * Every class that is a service, declares beans, named instances, scopes, post construct / pre destroy
+ * methods or implements {@link ServiceMethodAspectHandler} is recorded with the kinds of its occurrences.
+ * When the index is present in a startup directory, {@link org.example.InitApp} loads the indexed services
+ * instead of scanning the directory.
+ * <p>
+ * The processor is not registered automatically. Enable it with
+ * {@code -processor org.example.processor.ServiceIndexProcessor} (or {@code <annotationProcessors>} in maven).
+ * Custom service annotations that are not {@link AliasFor} of {@link Service} can be given
+ * with {@code -Aioc.serviceAnnotations=com.example.MyService,com.example.OtherService}.
+ * <p>
+ * Entries of an existing index are kept for classes that still exist and were not recompiled,
+ * so incremental compilation does not lose services that were not recompiled
+ * and drops recompiled classes that are no longer services.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ServiceIndexProcessor.SERVICE_ANNOTATIONS_OPTION)
+public class ServiceIndexProcessor extends AbstractProcessor {
+
+    public static final String SERVICE_ANNOTATIONS_OPTION = "ioc.serviceAnnotations";
+
+    private final Set<String> serviceAnnotations = new HashSet<>();
+
+    private final Map<String, Set<IndexedElementType>> index = new TreeMap<>();
+
+    /**
+     * Binary names of all classes that were compiled in this compilation, whether they are indexed or not.
+     */
+    private final Set<String> processedClasses = new HashSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.serviceAnnotations.add(Service.class.getName());
+
+        final String customAnnotations = processingEnv.getOptions().get(SERVICE_ANNOTATIONS_OPTION);
+        if (customAnnotations != null) {
+            for (String annotation : customAnnotations.split(",")) {
+                if (!annotation.isBlank()) {
+                    this.serviceAnnotations.add(annotation.trim());
+                }
+            }
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.writeIndex();
+            return false;
+        }
+
+        for (Element rootElement : roundEnv.getRootElements()) {
+            this.processElement(rootElement);
+        }
+
+        return false;
+    }
+
+    /**
+     * Records a given class and recursively all of its nested classes.
+     */
+    private void processElement(Element element) {
+        if (element.getKind().isClass() || element.getKind().isInterface()) {
+            this.processedClasses.add(this.processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+        }
+
+        if (!element.getKind().isClass() || element.getKind() == ElementKind.ENUM) {
+            return;
+        }
+
+        final TypeElement typeElement = (TypeElement) element;
+        final Set<IndexedElementType> elementTypes = EnumSet.noneOf(IndexedElementType.class);
+
+        for (AnnotationMirror annotationMirror : typeElement.getAnnotationMirrors()) {
+            if (this.isAnnotation(annotationMirror, this.serviceAnnotations)) {
+                elementTypes.add(IndexedElementType.SERVICE);
+            }
+        }
+
+        if (this.isAnnotationPresent(typeElement, NamedInstance.class)) {
+            elementTypes.add(IndexedElementType.NAMED_INSTANCE);
+        }
+
+        if (this.isAnnotationPresent(typeElement, Scope.class)) {
+            elementTypes.add(IndexedElementType.SCOPE);
+        }
+
+        if (this.isAspectHandler(typeElement)) {
+            elementTypes.add(IndexedElementType.ASPECT_HANDLER);
+        }
+
+        for (Element enclosedElement : typeElement.getEnclosedElements()) {
+            if (enclosedElement.getKind() == ElementKind.METHOD) {
+                this.processMethod((ExecutableElement) enclosedElement, elementTypes);
+            } else {
+                this.processElement(enclosedElement);
+            }
+        }
+
+        if (!elementTypes.isEmpty()) {
+            this.index.put(this.processingEnv.getElementUtils().getBinaryName(typeElement).toString(), elementTypes);
+        }
+    }
+
+    private void processMethod(ExecutableElement method, Set<IndexedElementType> elementTypes) {
+        if (this.isAnnotationPresent(method, Bean.class)) {
+            elementTypes.add(IndexedElementType.BEAN);
+        }
+
+        if (this.isAnnotationPresent(method, NamedInstance.class)) {
+            elementTypes.add(IndexedElementType.NAMED_INSTANCE);
+        }
+
+        if (this.isAnnotationPresent(method, Scope.class)) {
+            elementTypes.add(IndexedElementType.SCOPE);
+        }
+
+        if (this.isAnnotationPresent(method, PostConstruct.class)) {
+            elementTypes.add(IndexedElementType.POST_CONSTRUCT);
+        }
+
+        if (this.isAnnotationPresent(method, PreDestroy.class)) {
+            elementTypes.add(IndexedElementType.PRE_DESTROY);
+        }
+    }
+
+    private boolean isAspectHandler(TypeElement typeElement) {
+        final TypeElement aspectHandler = this.processingEnv.getElementUtils()
+                .getTypeElement(ServiceMethodAspectHandler.class.getCanonicalName());
+
+        if (aspectHandler == null) {
+            return false;
+        }
+
+        final TypeMirror aspectHandlerType = this.processingEnv.getTypeUtils().erasure(aspectHandler.asType());
+        final TypeMirror type = this.processingEnv.getTypeUtils().erasure(typeElement.asType());
+
+        return this.processingEnv.getTypeUtils().isAssignable(type, aspectHandlerType);
+    }
+
+    private boolean isAnnotationPresent(Element element, Class<? extends Annotation> requiredAnnotation) {
+        final Set<String> requiredAnnotationNames = Set.of(requiredAnnotation.getName());
+
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (this.isAnnotation(annotationMirror, requiredAnnotationNames)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Follows the {@link AliasFor} chain transitively, the same way as {@link org.example.util.AnnotationMetadata}.
+     *
+     * @return true if the annotation is one of the required ones or is an {@link AliasFor} of one of them.
+     */
+    private boolean isAnnotation(AnnotationMirror annotationMirror, Set<String> requiredAnnotationNames) {
+        final Set<String> visitedAnnotations = new HashSet<>();
+
+        TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+        while (annotationType != null && visitedAnnotations.add(annotationType.getQualifiedName().toString())) {
+            if (requiredAnnotationNames.contains(annotationType.getQualifiedName().toString())) {
+                return true;
+            }
+
+            annotationType = this.getAliasType(annotationType);
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the annotation given in the {@link AliasFor} of the given annotation or null.
+     */
+    private TypeElement getAliasType(TypeElement annotationType) {
+        for (AnnotationMirror metaAnnotation : annotationType.getAnnotationMirrors()) {
+            final TypeElement metaAnnotationType = (TypeElement) metaAnnotation.getAnnotationType().asElement();
+            if (!metaAnnotationType.getQualifiedName().contentEquals(AliasFor.class.getCanonicalName())) {
+                continue;
+            }
+
+            for (AnnotationValue value : metaAnnotation.getElementValues().values()) {
+                if (value.getValue() instanceof DeclaredType) {
+                    return (TypeElement) ((DeclaredType) value.getValue()).asElement();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Merges the recorded classes with the existing index and writes the result.
+     */
+    private void writeIndex() {
+        final Map<String, Set<IndexedElementType>> mergedIndex = new TreeMap<>(this.readExistingIndex());
+        mergedIndex.putAll(this.index);
+
+        try {
+            final FileObject indexFile = this.processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", Constants.SERVICE_INDEX_LOCATION);
+
+            try (Writer writer = indexFile.openWriter()) {
+                for (Map.Entry<String, Set<IndexedElementType>> entry : mergedIndex.entrySet()) {
+                    writer.write(ServiceIndexUtils.formatEntry(entry.getKey(), entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(
+                    "Could not write service index '%s': %s", Constants.SERVICE_INDEX_LOCATION, e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Reads the index from a previous compilation and keeps only classes that still exist
+     * and were not processed in this compilation.
+     */
+    private Map<String, Set<IndexedElementType>> readExistingIndex() {
+        final Map<String, Set<IndexedElementType>> existingIndex;
+        try {
+            final FileObject indexFile = this.processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", Constants.SERVICE_INDEX_LOCATION);
+
+            try (InputStream inputStream = indexFile.openInputStream()) {
+                existingIndex = ServiceIndexUtils.readIndex(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return Map.of();
+        }
+
+        existingIndex.keySet().removeIf(className -> this.processedClasses.contains(className)
+                || this.processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) == null);
+
+        return existingIndex;
+    }
+}
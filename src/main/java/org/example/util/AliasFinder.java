@@ -4,13 +4,14 @@ import org.example.annotations.AliasFor;
 
 import java.lang.annotation.Annotation;
 
+/**
+ * Finds annotations or their {@link AliasFor} aliases.
+ * Alias chains are read from {@link AnnotationMetadata}, so each annotation type is inspected only once.
+ */
 public class AliasFinder {
     public static Class<? extends Annotation> getAliasAnnotation(Annotation declaredAnnotation, Class<? extends Annotation> requiredAnnotation) {
-        if (declaredAnnotation.annotationType().isAnnotationPresent(AliasFor.class)) {
-            final Class<? extends Annotation> aliasValue = declaredAnnotation.annotationType().getAnnotation(AliasFor.class).value();
-            if (aliasValue == requiredAnnotation) {
-                return aliasValue;
-            }
+        if (AnnotationMetadata.of(declaredAnnotation.annotationType()).isAliasFor(requiredAnnotation)) {
+            return requiredAnnotation;
         }
 
         return null;
@@ -30,7 +31,7 @@ public class AliasFinder {
 
     public static Annotation getAnnotation(Annotation[] annotations, Class<? extends Annotation> requiredAnnotation) {
         for (Annotation annotation : annotations) {
-            if (annotation.annotationType() == requiredAnnotation || getAliasAnnotation(annotation, requiredAnnotation) != null) {
+            if (AnnotationMetadata.of(annotation.annotationType()).isCompatibleWith(requiredAnnotation)) {
                 return annotation;
             }
         }
@@ -41,4 +42,4 @@ public class AliasFinder {
         return getAnnotation(annotations, requiredAnnotation) != null;
 
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package org.example.util;
+
+import org.example.annotations.AliasFor;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Reflection metadata of an annotation type, computed once per type and kept in a {@link ClassValue}.
+ * <p>
+ * Holds the transitive closure of the {@link AliasFor} chain (if A is alias for B and B is alias for C,
+ * A is alias for both B and C) and a {@link MethodHandle} for the value() element.
+ */
+public final class AnnotationMetadata {
+
+    private static final String VALUE_METHOD_NAME = "value";
+
+    private static final ClassValue<AnnotationMetadata> METADATA = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected AnnotationMetadata computeValue(Class<?> type) {
+            return new AnnotationMetadata((Class<? extends Annotation>) type);
+        }
+    };
+
+    private final Class<? extends Annotation> annotationType;
+
+    /**
+     * Annotation types this annotation is an alias for, directly or through other aliases.
+     */
+    private final Set<Class<? extends Annotation>> aliases;
+
+    /**
+     * Handle for value() with type (Annotation)Object or null if there is no such element.
+     */
+    private final MethodHandle valueHandle;
+
+    /**
+     * Reason why value() cannot be read or null.
+     */
+    private final ReflectiveOperationException valueError;
+
+    private AnnotationMetadata(Class<? extends Annotation> annotationType) {
+        this.annotationType = annotationType;
+        this.aliases = Collections.unmodifiableSet(findAliases(annotationType));
+
+        MethodHandle valueHandle = null;
+        ReflectiveOperationException valueError = null;
+        try {
+            final Method valueMethod = annotationType.getMethod(VALUE_METHOD_NAME);
+            valueMethod.trySetAccessible();
+            valueHandle = MethodHandles.lookup().unreflect(valueMethod)
+                    .asType(MethodType.methodType(Object.class, Annotation.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            valueError = e;
+        }
+
+        this.valueHandle = valueHandle;
+        this.valueError = valueError;
+    }
+
+    /**
+     * @param annotationType - the annotation type.
+     * @return cached metadata for the given annotation type.
+     */
+    public static AnnotationMetadata of(Class<? extends Annotation> annotationType) {
+        return METADATA.get(annotationType);
+    }
+
+    public Class<? extends Annotation> getAnnotationType() {
+        return this.annotationType;
+    }
+
+    public Set<Class<? extends Annotation>> getAliases() {
+        return this.aliases;
+    }
+
+    /**
+     * @param requiredAnnotation - the required annotation type.
+     * @return true if this annotation is an alias (directly or transitively) for the required annotation.
+     */
+    public boolean isAliasFor(Class<? extends Annotation> requiredAnnotation) {
+        return this.aliases.contains(requiredAnnotation);
+    }
+
+    /**
+     * @return true if this is the required annotation type or an alias for it.
+     */
+    public boolean isCompatibleWith(Class<? extends Annotation> requiredAnnotation) {
+        return this.annotationType == requiredAnnotation || this.aliases.contains(requiredAnnotation);
+    }
+
+    /**
+     * @param annotation - annotation of this type.
+     * @return the result of value().
+     */
+    public Object getValue(Annotation annotation) {
+        if (this.valueHandle == null) {
+            throw new RuntimeException(this.valueError);
+        }
+
+        try {
+            return this.valueHandle.invokeExact(annotation);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    private static Set<Class<? extends Annotation>> findAliases(Class<? extends Annotation> annotationType) {
+        final Set<Class<? extends Annotation>> aliases = new LinkedHashSet<>();
+
+        AliasFor aliasFor = annotationType.getAnnotation(AliasFor.class);
+        while (aliasFor != null && aliasFor.value() != annotationType && aliases.add(aliasFor.value())) {
+            aliasFor = aliasFor.value().getAnnotation(AliasFor.class);
+        }
+
+        return aliases;
+    }
+}
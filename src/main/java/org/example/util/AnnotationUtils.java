@@ -1,17 +1,14 @@
 package org.example.util;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 
 public final class AnnotationUtils {
 
+    /**
+     * @param annotation - the given annotation.
+     * @return the result of value(), invoked through the handle cached in {@link AnnotationMetadata}.
+     */
     public static Object getAnnotationValue(Annotation annotation) {
-        try {
-            final Method method = annotation.annotationType().getMethod("value");
-            return method.invoke(annotation);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        return AnnotationMetadata.of(annotation.annotationType()).getValue(annotation);
     }
 }
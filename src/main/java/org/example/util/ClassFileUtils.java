@@ -0,0 +1,269 @@
+package org.example.util;
+
+import org.example.exceptions.ClassLocationException;
+import org.example.model.ClassFileDetails;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the parts of a class file that are needed for scanning
+ * (class name, access flags and RuntimeVisibleAnnotations) straight from the bytes
+ * without loading the class.
+ * <p>
+ * See chapter 4 of the JVM specification for the class file format.
+ */
+public final class ClassFileUtils {
+
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private static final String INVALID_CLASS_FILE_MSG = "Invalid class file '%s'.";
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private ClassFileUtils() {
+    }
+
+    /**
+     * Reads class name, access flags and the names of runtime visible annotations of a class file.
+     * The position of the given buffer is moved to the end of the class file.
+     *
+     * @param source   - name of the source, used for error messages only.
+     * @param classFile - buffer positioned at the beginning of the class file.
+     * @return details of the class file.
+     * @throws ClassLocationException - if the bytes are not a valid class file.
+     */
+    public static ClassFileDetails readClassFile(String source, ByteBuffer classFile) {
+        try {
+            return readClassFileDetails(classFile);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ClassLocationException(String.format(INVALID_CLASS_FILE_MSG, source), e);
+        }
+    }
+
+    private static ClassFileDetails readClassFileDetails(ByteBuffer buffer) {
+        if (buffer.getInt() != CLASS_FILE_MAGIC) {
+            throw new IllegalArgumentException("Missing class file magic number.");
+        }
+
+        //minor and major version
+        skip(buffer, 4);
+
+        final int[] constantOffsets = readConstantPool(buffer);
+
+        final int accessFlags = buffer.getShort() & 0xFFFF;
+        final int thisClass = buffer.getShort() & 0xFFFF;
+        final String className = readClassName(buffer, constantOffsets, thisClass);
+
+        //super class
+        skip(buffer, 2);
+        skip(buffer, 2 * (buffer.getShort() & 0xFFFF));
+
+        skipMembers(buffer);
+        skipMembers(buffer);
+
+        Set<String> annotationNames = Collections.emptySet();
+        final int attributesCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < attributesCount; i++) {
+            final int nameIndex = buffer.getShort() & 0xFFFF;
+            final int length = buffer.getInt();
+            final int end = buffer.position() + length;
+
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(readUtf8(buffer, constantOffsets, nameIndex))) {
+                annotationNames = readAnnotationNames(buffer, constantOffsets);
+            }
+
+            buffer.position(end);
+        }
+
+        return new ClassFileDetails(className, accessFlags, annotationNames);
+    }
+
+    /**
+     * Iterates the constant pool and stores the offset of every entry.
+     * Only the offsets are kept, the actual values are decoded on demand.
+     */
+    private static int[] readConstantPool(ByteBuffer buffer) {
+        final int constantPoolCount = buffer.getShort() & 0xFFFF;
+        final int[] offsets = new int[constantPoolCount];
+
+        for (int i = 1; i < constantPoolCount; i++) {
+            offsets[i] = buffer.position();
+            final int tag = buffer.get() & 0xFF;
+
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    skip(buffer, buffer.getShort() & 0xFFFF);
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skip(buffer, 2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skip(buffer, 3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELD_REF:
+                case CONSTANT_METHOD_REF:
+                case CONSTANT_INTERFACE_METHOD_REF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip(buffer, 4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    skip(buffer, 8);
+                    //Long and double take two slots in the constant pool.
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Skips fields or methods since they are not needed for deciding if a class is a service.
+     */
+    private static void skipMembers(ByteBuffer buffer) {
+        final int membersCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < membersCount; i++) {
+            //access flags, name and descriptor
+            skip(buffer, 6);
+
+            final int attributesCount = buffer.getShort() & 0xFFFF;
+            for (int j = 0; j < attributesCount; j++) {
+                skip(buffer, 2);
+                skip(buffer, buffer.getInt());
+            }
+        }
+    }
+
+    private static Set<String> readAnnotationNames(ByteBuffer buffer, int[] constantOffsets) {
+        final int annotationsCount = buffer.getShort() & 0xFFFF;
+        final Set<String> annotationNames = new HashSet<>(annotationsCount * 2);
+
+        for (int i = 0; i < annotationsCount; i++) {
+            annotationNames.add(readAnnotation(buffer, constantOffsets));
+        }
+
+        return annotationNames;
+    }
+
+    /**
+     * Reads an annotation structure and returns the binary name of its type.
+     * Element values are skipped.
+     */
+    private static String readAnnotation(ByteBuffer buffer, int[] constantOffsets) {
+        final String descriptor = readUtf8(buffer, constantOffsets, buffer.getShort() & 0xFFFF);
+
+        final int pairsCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < pairsCount; i++) {
+            skip(buffer, 2);
+            skipElementValue(buffer, constantOffsets);
+        }
+
+        return descriptorToClassName(descriptor);
+    }
+
+    private static void skipElementValue(ByteBuffer buffer, int[] constantOffsets) {
+        final char tag = (char) (buffer.get() & 0xFF);
+
+        switch (tag) {
+            case 'e':
+                skip(buffer, 4);
+                break;
+            case '@':
+                readAnnotation(buffer, constantOffsets);
+                break;
+            case '[':
+                final int valuesCount = buffer.getShort() & 0xFFFF;
+                for (int i = 0; i < valuesCount; i++) {
+                    skipElementValue(buffer, constantOffsets);
+                }
+                break;
+            default:
+                //B C D F I J S Z s c
+                skip(buffer, 2);
+        }
+    }
+
+    private static String readClassName(ByteBuffer buffer, int[] constantOffsets, int classIndex) {
+        final int nameIndex = buffer.getShort(constantOffsets[classIndex] + 1) & 0xFFFF;
+        return readUtf8(buffer, constantOffsets, nameIndex).replace('/', '.');
+    }
+
+    /**
+     * Decodes a CONSTANT_Utf8 entry (modified UTF-8) without moving the position of the buffer.
+     */
+    private static String readUtf8(ByteBuffer buffer, int[] constantOffsets, int index) {
+        final int offset = constantOffsets[index];
+        if ((buffer.get(offset) & 0xFF) != CONSTANT_UTF8) {
+            throw new IllegalArgumentException("Constant " + index + " is not an Utf8 entry.");
+        }
+
+        final int length = buffer.getShort(offset + 1) & 0xFFFF;
+        final char[] chars = new char[length];
+        int charsCount = 0;
+        int pos = offset + 3;
+        final int end = pos + length;
+
+        while (pos < end) {
+            final int b = buffer.get(pos++) & 0xFF;
+            if (b < 0x80) {
+                chars[charsCount++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[charsCount++] = (char) (((b & 0x1F) << 6) | (buffer.get(pos++) & 0x3F));
+            } else {
+                final int b2 = buffer.get(pos++) & 0x3F;
+                final int b3 = buffer.get(pos++) & 0x3F;
+                chars[charsCount++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+            }
+        }
+
+        return new String(chars, 0, charsCount);
+    }
+
+    /**
+     * Converts field descriptor (eg. Lorg/example/annotations/Service;) to binary class name.
+     */
+    private static String descriptorToClassName(String descriptor) {
+        if (descriptor.length() < 2 || descriptor.charAt(0) != 'L') {
+            return descriptor;
+        }
+
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    private static void skip(ByteBuffer buffer, int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+}
@@ -1,13 +1,30 @@
 package org.example.util;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class GenericsUtils {
 
+    /**
+     * Resolved generic type arguments per class, keyed by the generic class or interface.
+     * Classes without a match are stored with {@link #NO_TYPE_ARGUMENTS}.
+     */
+    private static final ClassValue<Map<Class<?>, Type[]>> GENERIC_TYPE_ARGUMENTS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, Type[]> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Type[] NO_TYPE_ARGUMENTS = new Type[0];
+
     /**
      * Gets the generic type arguments of a given class.
      * EG.
@@ -16,52 +33,222 @@ public class GenericsUtils {
      *
      * @param cls          - class to be looked up.
      * @param genericClass - generic class or interface from which we need to extract the types.
-     * @return -
+     * @return - the type arguments or null if the class does not extend the generic class.
      */
     public static Type[] getGenericTypeArguments(Class<?> cls, Class<?> genericClass) {
-        final Optional<ParameterizedType> genericClsType = Arrays.stream(cls.getGenericInterfaces())
-                .filter(type -> type instanceof ParameterizedType)
-                .filter(type -> ((ParameterizedType) type).getRawType() == genericClass)
-                .map(type -> (ParameterizedType) type)
-                .findFirst();
+        final Type[] typeArguments = GENERIC_TYPE_ARGUMENTS.get(cls).computeIfAbsent(genericClass, gc -> {
+            final Type[] resolved = findGenericTypeArguments(cls, gc, Map.of());
+            return resolved == null ? NO_TYPE_ARGUMENTS : resolved;
+        });
+
+        if (typeArguments == NO_TYPE_ARGUMENTS) {
+            return null;
+        }
+
+        return typeArguments.clone();
+    }
+
+    /**
+     * Walks the super class and the interfaces of the given type depth first
+     * and substitutes the type variables that are bound on the way.
+     * EG.
+     * class OrderRepository extends BaseRepository<Order> {}, class BaseRepository<T> implements Repository<T> {}
+     * If we call resolveTypeArguments(OrderRepository.class, Repository.class) we will get Order as a result.
+     *
+     * @param type         - class or parameterized type to be looked up.
+     * @param genericClass - generic class or interface from which we need to extract the types.
+     * @return the type arguments or null if the type does not extend the generic class.
+     * Type arguments that cannot be resolved (eg. raw usages) are returned as type variables.
+     */
+    public static Type[] resolveTypeArguments(Type type, Class<?> genericClass) {
+        if (type instanceof Class) {
+            return getGenericTypeArguments((Class<?>) type, genericClass);
+        }
+
+        return findGenericTypeArguments(type, genericClass, Map.of());
+    }
 
-        if (genericClsType.isPresent()) {
-            return genericClsType.get().getActualTypeArguments();
+    private static Type[] findGenericTypeArguments(Type type, Class<?> genericClass, Map<TypeVariable<?>, Type> bindings) {
+        final Class<?> rawType;
+        final Map<TypeVariable<?>, Type> typeBindings = new HashMap<>();
+        if (type instanceof Class) {
+            rawType = (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            rawType = (Class<?>) ((ParameterizedType) type).getRawType();
+
+            final TypeVariable<?>[] typeParameters = rawType.getTypeParameters();
+            final Type[] actualTypeArguments = ((ParameterizedType) type).getActualTypeArguments();
+            for (int i = 0; i < typeParameters.length; i++) {
+                typeBindings.put(typeParameters[i], bindings.getOrDefault(actualTypeArguments[i], actualTypeArguments[i]));
+            }
+        } else {
+            return null;
         }
 
-        if (cls.getGenericSuperclass() != Object.class) {
-            return getGenericTypeArguments((Class<?>) cls.getGenericSuperclass(), genericClass);
+        if (rawType == genericClass) {
+            final TypeVariable<?>[] typeParameters = rawType.getTypeParameters();
+            final Type[] typeArguments = new Type[typeParameters.length];
+            for (int i = 0; i < typeArguments.length; i++) {
+                typeArguments[i] = typeBindings.getOrDefault(typeParameters[i], typeParameters[i]);
+            }
+
+            return typeArguments;
+        }
+
+        if (!genericClass.isAssignableFrom(rawType)) {
+            return null;
+        }
+
+        if (rawType.getGenericSuperclass() != null) {
+            final Type[] typeArguments = findGenericTypeArguments(rawType.getGenericSuperclass(), genericClass, typeBindings);
+            if (typeArguments != null) {
+                return typeArguments;
+            }
+        }
+
+        for (Type genericInterface : rawType.getGenericInterfaces()) {
+            final Type[] typeArguments = findGenericTypeArguments(genericInterface, genericClass, typeBindings);
+            if (typeArguments != null) {
+                return typeArguments;
+            }
         }
 
         return null;
     }
 
-    public static Class<?> getRawType(ParameterizedType type) {
-        return getRawType(type, null);
+    /**
+     * Checks whether a value of the candidate type can be assigned to the required type,
+     * including their type arguments.
+     * Type variables and raw usages match any type argument, so that raw types stay compatible.
+     *
+     * @param requiredType  - type of the injection point.
+     * @param candidateType - type of the service or bean.
+     * @return true if the candidate is compatible.
+     */
+    public static boolean isAssignable(Type requiredType, Type candidateType) {
+        if (requiredType instanceof TypeVariable || candidateType instanceof TypeVariable) {
+            return true;
+        }
+
+        final Class<?> requiredRawType = getRawClass(requiredType);
+        final Class<?> candidateRawType = getRawClass(candidateType);
+        if (!requiredRawType.isAssignableFrom(candidateRawType)) {
+            return false;
+        }
+
+        if (!(requiredType instanceof ParameterizedType)) {
+            return true;
+        }
+
+        final Type[] requiredTypeArguments = ((ParameterizedType) requiredType).getActualTypeArguments();
+        final Type[] candidateTypeArguments = resolveTypeArguments(candidateType, requiredRawType);
+        if (candidateTypeArguments == null || candidateTypeArguments.length != requiredTypeArguments.length) {
+            return true;
+        }
+
+        for (int i = 0; i < requiredTypeArguments.length; i++) {
+            if (!typeArgumentMatches(requiredTypeArguments[i], candidateTypeArguments[i])) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
-     * Search and find real generic value.
+     * Type arguments are invariant unless the required one is a wildcard.
+     */
+    private static boolean typeArgumentMatches(Type requiredTypeArgument, Type candidateTypeArgument) {
+        if (requiredTypeArgument instanceof TypeVariable || candidateTypeArgument instanceof TypeVariable) {
+            return true;
+        }
+
+        if (requiredTypeArgument instanceof WildcardType) {
+            final WildcardType wildcardType = (WildcardType) requiredTypeArgument;
+            for (Type upperBound : wildcardType.getUpperBounds()) {
+                if (!isAssignable(upperBound, candidateTypeArgument)) {
+                    return false;
+                }
+            }
+
+            for (Type lowerBound : wildcardType.getLowerBounds()) {
+                if (!isAssignable(candidateTypeArgument, lowerBound)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (requiredTypeArgument instanceof ParameterizedType && candidateTypeArgument instanceof ParameterizedType) {
+            final ParameterizedType required = (ParameterizedType) requiredTypeArgument;
+            final ParameterizedType candidate = (ParameterizedType) candidateTypeArgument;
+            if (required.getRawType() != candidate.getRawType()) {
+                return false;
+            }
+
+            for (int i = 0; i < required.getActualTypeArguments().length; i++) {
+                if (!typeArgumentMatches(required.getActualTypeArguments()[i], candidate.getActualTypeArguments()[i])) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (requiredTypeArgument instanceof GenericArrayType && candidateTypeArgument instanceof GenericArrayType) {
+            return typeArgumentMatches(
+                    ((GenericArrayType) requiredTypeArgument).getGenericComponentType(),
+                    ((GenericArrayType) candidateTypeArgument).getGenericComponentType()
+            );
+        }
+
+        return requiredTypeArgument.equals(candidateTypeArgument);
+    }
+
+    /**
+     * @return the class of a given type, type variables and wildcards are replaced by their first upper bound.
+     */
+    public static Class<?> getRawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(getRawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+
+        if (type instanceof TypeVariable) {
+            return getRawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+
+        if (type instanceof WildcardType) {
+            return getRawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+
+        return Object.class;
+    }
+
+    /**
+     * Gets the element type of a collection.
      * Eg:
      * private List<String> - will return String
-     * private List<Set<List<Integer>>> - will return Integer
+     * private List<Repository<Order>> - will return Repository<Order>
+     * private List<? extends Handler> - will return Handler
      *
-     * @param type - parameterized type
-     * @return raw type
+     * @param collectionType - parameterized collection type
+     * @return element type
      */
-    private static Class<?> getRawType(ParameterizedType type, Class<?> lastType) {
-        final Type actualTypeArgument = type.getActualTypeArguments()[0];
-        if (actualTypeArgument instanceof Class) {
-            return (Class<?>) actualTypeArgument;
-        }
-
-        if (actualTypeArgument instanceof WildcardType) {
-            return lastType;
+    public static Type getElementType(ParameterizedType collectionType) {
+        final Type elementType = collectionType.getActualTypeArguments()[0];
+        if (elementType instanceof WildcardType) {
+            return ((WildcardType) elementType).getUpperBounds()[0];
         }
 
-        return getRawType(
-                (ParameterizedType) actualTypeArgument,
-                (Class<?>) ((ParameterizedType) actualTypeArgument).getRawType()
-        );
+        return elementType;
     }
 }
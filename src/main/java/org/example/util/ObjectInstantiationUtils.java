@@ -2,23 +2,30 @@ package org.example.util;
 
 
 
+import org.example.annotations.PostConstruct;
 import org.example.container.ServiceDetails;
 import org.example.exceptions.BeanInstantiationException;
 import org.example.exceptions.PostConstructException;
 import org.example.exceptions.PreDestroyExecutionException;
 import org.example.exceptions.ServiceInstantiationException;
+import org.example.instantiations.InstanceArgumentsPlan;
 import org.example.instantiations.ServiceBeanDetails;
-import org.example.model.DependencyParam;
+import org.example.instantiations.ServiceInstanceFactory;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 
 public class ObjectInstantiationUtils {
     private static final String INVALID_PARAMETERS_COUNT_MSG = "Invalid parameters count for '%s'.";
 
+    private static final Object[] NO_FIELD_INSTANCES = new Object[0];
+
+    private static final CompletableFuture<Void> POST_CONSTRUCT_COMPLETED = CompletableFuture.completedFuture(null);
+
     public static void createInstance(ServiceDetails serviceDetails) {
         serviceDetails.setInstance(createNewInstance(serviceDetails));
     }
@@ -29,21 +36,56 @@ public class ObjectInstantiationUtils {
         serviceDetails.setInstance(createNewInstance(serviceDetails, constructorParams, autowiredFieldInstances));
     }
 
+    /**
+     * Creates an instance for a service with its resolved dependencies, see {@link InstanceArgumentsPlan}.
+     *
+     * @param serviceDetails the given service details.
+     */
     public static Object createNewInstance(ServiceDetails serviceDetails) {
-        final Object[] constructorParams = serviceDetails.getResolvedConstructorParams().stream()
-                .map(DependencyParam::getInstance)
-                .toArray(Object[]::new);
+        final InstanceArgumentsPlan argumentsPlan = serviceDetails.getInstanceArgumentsPlan();
 
-        final Object[] fieldParams = serviceDetails.getResolvedFields().stream()
-                .map(DependencyParam::getInstance)
-                .toArray(Object[]::new);
+        return createNewInstance(
+                serviceDetails,
+                argumentsPlan.getConstructorArguments(),
+                argumentsPlan.getFieldArguments()
+        );
+    }
 
-        return createNewInstance(serviceDetails, constructorParams, fieldParams);
+    /**
+     * Creates the initial instance of a service during startup.
+     * Unlike {@link #createInstance(ServiceDetails, Object[], Object[])}, it does not wait for
+     * an asynchronous post construct method or the stage returned by the post construct method.
+     *
+     * @param serviceDetails    the given service details.
+     * @param constructorParams instantiated dependencies.
+     * @param executor          executor of {@link PostConstruct#async()} methods, null for the common pool.
+     * @return completes when the post construct method has completed.
+     */
+    public static CompletableFuture<Void> createInitialInstance(ServiceDetails serviceDetails,
+                                                                Object[] constructorParams,
+                                                                Object[] autowiredFieldInstances,
+                                                                Executor executor) throws ServiceInstantiationException {
+        final ServiceInstanceFactory instanceFactory = getInstanceFactory(serviceDetails);
+        final Object instance = newInstance(serviceDetails, instanceFactory, constructorParams, autowiredFieldInstances);
+        serviceDetails.setInstance(instance);
+
+        if (!isAsyncPostConstruct(serviceDetails.getPostConstructMethod())) {
+            return invokePostConstruct(instanceFactory, instance);
+        }
+
+        if (executor == null) {
+            return CompletableFuture.supplyAsync(() -> invokePostConstruct(instanceFactory, instance))
+                    .thenCompose(postConstruct -> postConstruct);
+        }
+
+        return CompletableFuture.supplyAsync(() -> invokePostConstruct(instanceFactory, instance), executor)
+                .thenCompose(postConstruct -> postConstruct);
     }
 
     /**
-     * Creates an instance for a service.
-     * Invokes the PostConstruct method.
+     * Creates an instance for a service with its {@link ServiceInstanceFactory}.
+     * Invokes the PostConstruct method and waits for the stage that it returned if any.
+     * The instance of the service details is not changed, since other threads may be reading it.
      *
      * @param serviceDetails    the given service details.
      * @param constructorParams instantiated dependencies.
@@ -51,59 +93,122 @@ public class ObjectInstantiationUtils {
     public static Object createNewInstance(ServiceDetails serviceDetails,
                                            Object[] constructorParams,
                                            Object[] autowiredFieldInstances) throws ServiceInstantiationException {
-        final Constructor<?> targetConstructor = serviceDetails.getTargetConstructor();
+        final ServiceInstanceFactory instanceFactory = getInstanceFactory(serviceDetails);
+        final Object instance = newInstance(serviceDetails, instanceFactory, constructorParams, autowiredFieldInstances);
+
+        awaitPostConstruct(invokePostConstruct(instanceFactory, instance));
+
+        return instance;
+    }
 
-        if (constructorParams.length != targetConstructor.getParameterCount()) {
+    private static Object newInstance(ServiceDetails serviceDetails,
+                                      ServiceInstanceFactory instanceFactory,
+                                      Object[] constructorParams,
+                                      Object[] autowiredFieldInstances) throws ServiceInstantiationException {
+        if (constructorParams.length != serviceDetails.getTargetConstructor().getParameterCount()) {
             throw new ServiceInstantiationException(String.format(
                     INVALID_PARAMETERS_COUNT_MSG,
                     serviceDetails.getServiceType().getName()
             ));
         }
 
+        final Object instance;
         try {
-            final Object instance = targetConstructor.newInstance(constructorParams);
-            serviceDetails.setInstance(instance);
-            setAutowiredFieldInstances(serviceDetails, autowiredFieldInstances, instance);
-            invokePostConstruct(serviceDetails, instance);
-
-            return instance;
-        } catch (IllegalAccessException | InvocationTargetException | InstantiationException e) {
+            instance = instanceFactory.newInstance(constructorParams, autowiredFieldInstances);
+        } catch (Exception e) {
             throw new ServiceInstantiationException(e.getMessage(), e);
         }
+
+        return instance;
     }
 
     /**
-     * Iterates all {@link Autowired} annotated fields and sets them a given instance.
+     * The factory is created on first use by the {@link org.example.instantiations.InstantiationStrategy}
+     * of the service and kept in the service details, also for services that came with an instance
+     * or whose factory was reset.
+     * Concurrent first uses may create it more than once, only one of the factories is kept.
      *
-     * @param serviceDetails          - given service details.
-     * @param autowiredFieldInstances - field instances.
+     * @param serviceDetails - the given service.
+     * @return the factory of the service.
      */
-    private static void setAutowiredFieldInstances(ServiceDetails serviceDetails,
-                                                   Object[] autowiredFieldInstances,
-                                                   Object instance) throws IllegalAccessException {
-        final Field[] autowireAnnotatedFields = serviceDetails.getAutowireAnnotatedFields();
-
-        for (int i = 0; i < autowireAnnotatedFields.length; i++) {
-            autowireAnnotatedFields[i].set(instance, autowiredFieldInstances[i]);
+    private static ServiceInstanceFactory getInstanceFactory(ServiceDetails serviceDetails) {
+        ServiceInstanceFactory instanceFactory = serviceDetails.getInstanceFactory();
+        if (instanceFactory == null) {
+            instanceFactory = serviceDetails.getInstantiationStrategy().createInstanceFactory(serviceDetails);
+            serviceDetails.setInstanceFactory(instanceFactory);
         }
+
+        return instanceFactory;
     }
 
     /**
      * Invokes post construct method if one is present for a given service.
      *
-     * @param serviceDetails - the given service.
+     * @param instanceFactory - factory of the given service.
+     * @return completes with the stage returned by the post construct method,
+     * fails with {@link PostConstructException}.
      */
-    private static void invokePostConstruct(ServiceDetails serviceDetails,
-                                            Object instance) throws PostConstructException {
-        if (serviceDetails.getPostConstructMethod() == null) {
-            return;
+    private static CompletableFuture<Void> invokePostConstruct(ServiceInstanceFactory instanceFactory, Object instance) {
+        final CompletionStage<?> stage;
+        try {
+            stage = instanceFactory.postConstruct(instance);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new PostConstructException(e.getMessage(), e));
+        }
+
+        if (stage == null) {
+            return POST_CONSTRUCT_COMPLETED;
         }
 
+        final CompletableFuture<Void> postConstruct = new CompletableFuture<>();
+        stage.whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                postConstruct.complete(null);
+            } else {
+                postConstruct.completeExceptionally(toPostConstructException(throwable));
+            }
+        });
+
+        return postConstruct;
+    }
+
+    /**
+     * Waits for the post construct method of a service, see {@link ServiceDetails#getReadiness()}.
+     * Runtime exceptions (eg. {@link PostConstructException}) are thrown as they are.
+     *
+     * @param postConstruct - completion of the post construct method.
+     */
+    public static void awaitPostConstruct(CompletableFuture<Void> postConstruct) throws PostConstructException {
         try {
-            serviceDetails.getPostConstructMethod().invoke(instance);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new PostConstructException(e.getMessage(), e);
+            postConstruct.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw toPostConstructException(e);
+        }
+    }
+
+    private static PostConstructException toPostConstructException(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+
+        if (throwable instanceof PostConstructException) {
+            return (PostConstructException) throwable;
         }
+
+        return new PostConstructException(throwable.getMessage(), throwable);
+    }
+
+    private static boolean isAsyncPostConstruct(Method postConstructMethod) {
+        if (postConstructMethod == null) {
+            return false;
+        }
+
+        final PostConstruct postConstruct = postConstructMethod.getAnnotation(PostConstruct.class);
+        return postConstruct != null && postConstruct.async();
     }
 
 
@@ -118,12 +223,11 @@ public class ObjectInstantiationUtils {
     }
 
     public static Object createNewInstance(ServiceBeanDetails serviceBeanDetails) {
-        final Method originMethod = serviceBeanDetails.getOriginMethod();
         final Object rootInstance = serviceBeanDetails.getRootService().getActualInstance();
 
         try {
-            return originMethod.invoke(rootInstance);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return getInstanceFactory(serviceBeanDetails).newInstance(new Object[]{rootInstance}, NO_FIELD_INSTANCES);
+        } catch (Exception e) {
             throw new BeanInstantiationException(e.getMessage(), e);
         }
     }
@@ -135,14 +239,24 @@ public class ObjectInstantiationUtils {
      * @param serviceDetails given service details.
      */
     public static void destroyInstance(ServiceDetails serviceDetails) throws PreDestroyExecutionException {
-        if (serviceDetails.getPreDestroyMethod() != null) {
+        destroyInstance(serviceDetails, serviceDetails.getActualInstance());
+        serviceDetails.setInstance(null);
+    }
+
+    /**
+     * Invokes the pre destroy method of the given service on an instance that has already been replaced.
+     *
+     * @param serviceDetails given service details.
+     * @param instance       old instance of the service or null.
+     */
+    public static void destroyInstance(ServiceDetails serviceDetails, Object instance) throws PreDestroyExecutionException {
+        //Lazy services that were never accessed have no instance to destroy.
+        if (serviceDetails.getPreDestroyMethod() != null && instance != null) {
             try {
-                serviceDetails.getPreDestroyMethod().invoke(serviceDetails.getActualInstance());
-            } catch (IllegalAccessException | InvocationTargetException e) {
+                getInstanceFactory(serviceDetails).preDestroy(instance);
+            } catch (Exception e) {
                 throw new PreDestroyExecutionException(e.getMessage(), e);
             }
         }
-
-        serviceDetails.setInstance(null);
     }
 }
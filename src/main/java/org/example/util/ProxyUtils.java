@@ -5,11 +5,14 @@ import javassist.util.proxy.ProxyFactory;
 import javassist.util.proxy.ProxyObject;
 import org.example.container.ServiceDetails;
 import org.example.handler.InvocationHandlerImpl;
+import org.example.handler.LazyInvocationHandler;
 import org.example.instantiations.ServiceBeanDetails;
 import org.example.model.MethodInvocationHandlerImpl;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class ProxyUtils {
 
@@ -41,4 +44,45 @@ public class ProxyUtils {
 
         serviceDetails.setProxyInstance(proxyInstance);
     }
+
+    /**
+     * Creates a proxy that implements all interfaces of the service and instantiates it on the first call.
+     *
+     * @param serviceDetails - lazy service.
+     * @return the proxy or null if the service does not implement any interface.
+     */
+    public static Object createLazyProxyInstance(ServiceDetails serviceDetails) {
+        final Set<Class<?>> interfaces = new LinkedHashSet<>();
+        collectInterfaces(serviceDetails.getServiceType(), interfaces);
+
+        if (interfaces.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Proxy.newProxyInstance(
+                    serviceDetails.getServiceType().getClassLoader(),
+                    interfaces.toArray(Class[]::new),
+                    new LazyInvocationHandler(serviceDetails)
+            );
+        } catch (IllegalArgumentException ex) {
+            //Some of the interfaces are not visible from the class loader of the service.
+            return null;
+        }
+    }
+
+    private static void collectInterfaces(Class<?> cls, Set<Class<?>> interfaces) {
+        if (cls == null) {
+            return;
+        }
+
+        if (cls.isInterface() && !interfaces.add(cls)) {
+            return;
+        }
+
+        collectInterfaces(cls.getSuperclass(), interfaces);
+        for (Class<?> anInterface : cls.getInterfaces()) {
+            collectInterfaces(anInterface, interfaces);
+        }
+    }
 }
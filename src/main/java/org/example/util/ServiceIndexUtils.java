@@ -0,0 +1,63 @@
+package org.example.util;
+
+import org.example.processor.IndexedElementType;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes the entries of the service index.
+ * <p>
+ * Each line of the index has the format {@code binaryClassName=TYPE,TYPE}
+ * where TYPE is one of {@link IndexedElementType}.
+ */
+public final class ServiceIndexUtils {
+
+    private static final char KEY_VALUE_SEPARATOR = '=';
+
+    private static final String TYPES_SEPARATOR = ",";
+
+    private ServiceIndexUtils() {
+    }
+
+    public static String formatEntry(String className, Set<IndexedElementType> elementTypes) {
+        return className + KEY_VALUE_SEPARATOR + elementTypes.stream()
+                .map(Enum::name)
+                .collect(Collectors.joining(TYPES_SEPARATOR));
+    }
+
+    /**
+     * @param content - content of the index file.
+     * @return class names mapped to the kinds of their occurrences.
+     * @throws IllegalArgumentException - if a line of the index is malformed.
+     */
+    public static Map<String, Set<IndexedElementType>> readIndex(String content) {
+        final Map<String, Set<IndexedElementType>> index = new HashMap<>();
+
+        for (String line : content.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            final int separator = line.indexOf(KEY_VALUE_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException(String.format("Invalid service index entry '%s'.", line));
+            }
+
+            final Set<IndexedElementType> elementTypes = EnumSet.noneOf(IndexedElementType.class);
+            for (String elementType : line.substring(separator + 1).split(TYPES_SEPARATOR)) {
+                if (!elementType.isBlank()) {
+                    elementTypes.add(IndexedElementType.valueOf(elementType.trim()));
+                }
+            }
+
+            index.put(line.substring(0, separator), elementTypes);
+        }
+
+        return index;
+    }
+}
@@ -0,0 +1,105 @@
+package org.example;
+
+import org.example.annotations.Service;
+
+import javax.annotation.processing.Processor;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles the sources of a test application, so that tests can change a class between two runs of the container.
+ */
+public final class TestCompiler {
+
+    private TestCompiler() {
+    }
+
+    /**
+     * @param outputDirectory - directory of the compiled classes, it is also on the class path of the compilation.
+     * @param sources         - sources by the binary name of their class.
+     * @param processors      - annotation processors to run, none disables annotation processing.
+     */
+    public static void compile(Path outputDirectory, Map<String, String> sources, Processor... processors) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        final List<String> options = new ArrayList<>(List.of(
+                "-d", outputDirectory.toString(),
+                "-classpath", getLibraryLocation() + File.pathSeparator + outputDirectory
+        ));
+        if (processors.length == 0) {
+            options.add("-proc:none");
+        }
+
+        final List<JavaFileObject> compilationUnits = sources.entrySet().stream()
+                .map(source -> new SourceFile(source.getKey(), source.getValue()))
+                .collect(Collectors.toList());
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                    null, fileManager, diagnostics, options, null, compilationUnits
+            );
+            if (processors.length > 0) {
+                task.setProcessors(List.of(processors));
+            }
+
+            if (!task.call()) {
+                throw new IllegalStateException("Compilation failed: " + diagnostics.getDiagnostics());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return new class loader of the compiled classes, so that every run of the container sees their current version.
+     */
+    public static URLClassLoader newClassLoader(Path outputDirectory) {
+        try {
+            return new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, TestCompiler.class.getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static Path getLibraryLocation() {
+        try {
+            return Paths.get(Service.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String content;
+
+        private SourceFile(String className, String content) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return this.content;
+        }
+    }
+}
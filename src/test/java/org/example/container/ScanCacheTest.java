@@ -0,0 +1,119 @@
+package org.example.container;
+
+import org.example.InitApp;
+import org.example.TestCompiler;
+import org.example.annotations.ScopeType;
+import org.example.configs.Configuration;
+import org.example.model.CachedServiceDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanCacheTest {
+
+    private static final String SIGNATURE = "signature";
+
+    private static final String SERVICE_FILE = "/classes/app/Service.class";
+
+    private static final String PARENT_FILE = "/classes/app/Parent.class";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void cachedServiceIsReturnedIfItsHierarchyIsUnchanged() {
+        final Path cacheFile = this.writeCache();
+
+        final ScanCache scanCache = ScanCache.load(cacheFile, SIGNATURE);
+        scanCache.putUnchangedFileEntry(SERVICE_FILE, scanCache.getFileEntry(SERVICE_FILE));
+        scanCache.putUnchangedFileEntry(PARENT_FILE, scanCache.getFileEntry(PARENT_FILE));
+
+        assertNotNull(scanCache.getCachedService("app.Service"));
+    }
+
+    @Test
+    void cachedServiceIsInvalidatedIfItsSuperclassChanged() {
+        final Path cacheFile = this.writeCache();
+
+        final ScanCache scanCache = ScanCache.load(cacheFile, SIGNATURE);
+        scanCache.putUnchangedFileEntry(SERVICE_FILE, scanCache.getFileEntry(SERVICE_FILE));
+        scanCache.putChangedFileEntry(PARENT_FILE, new ScanCache.FileEntry(2, 2, 2, "app.Parent", false));
+
+        assertNull(scanCache.getCachedService("app.Service"));
+    }
+
+    @Test
+    void cachedServiceIsInvalidatedIfItsSuperclassWasNotVerified() {
+        final Path cacheFile = this.writeCache();
+
+        final ScanCache scanCache = ScanCache.load(cacheFile, SIGNATURE);
+        scanCache.putUnchangedFileEntry(SERVICE_FILE, scanCache.getFileEntry(SERVICE_FILE));
+
+        assertNull(scanCache.getCachedService("app.Service"));
+    }
+
+    @Test
+    void cacheIsDiscardedIfConfigurationChanged() {
+        final Path cacheFile = this.writeCache();
+
+        final ScanCache scanCache = ScanCache.load(cacheFile, "other signature");
+
+        assertNull(scanCache.getFileEntry(SERVICE_FILE));
+        assertNull(scanCache.getCachedService("app.Service"));
+    }
+
+    @Test
+    void modifiedServiceIsScannedAgain() throws Exception {
+        final Path classes = Files.createDirectory(this.tempDir.resolve("classes"));
+        final Path cacheFile = this.tempDir.resolve("scan.cache");
+
+        TestCompiler.compile(classes, Map.of(
+                "app.Dependency", "package app; @org.example.annotations.Service public class Dependency {}",
+                "app.Consumer", "package app; @org.example.annotations.Service public class Consumer {}"
+        ));
+        assertEquals(0, this.getConsumerDetails(classes, cacheFile).getAutowireAnnotatedFields().length);
+        assertTrue(Files.isRegularFile(cacheFile));
+
+        TestCompiler.compile(classes, Map.of(
+                "app.Consumer", "package app; @org.example.annotations.Service public class Consumer {"
+                        + " @org.example.annotations.Autowired private Dependency dependency; }"
+        ));
+        assertEquals(1, this.getConsumerDetails(classes, cacheFile).getAutowireAnnotatedFields().length);
+    }
+
+    private ServiceDetails getConsumerDetails(Path classes, Path cacheFile) throws Exception {
+        try (URLClassLoader classLoader = TestCompiler.newClassLoader(classes)) {
+            final Configuration configuration = new Configuration();
+            configuration.scanning().setClassLoader(classLoader).setScanCacheFile(cacheFile);
+
+            return InitApp.run(new File[]{classes.toFile()}, configuration)
+                    .getServiceDetails(classLoader.loadClass("app.Consumer"));
+        }
+    }
+
+    private Path writeCache() {
+        final Path cacheFile = this.tempDir.resolve("scan.cache");
+
+        final ScanCache scanCache = ScanCache.load(cacheFile, SIGNATURE);
+        scanCache.putChangedFileEntry(SERVICE_FILE, new ScanCache.FileEntry(1, 1, 1, "app.Service", true));
+        scanCache.putChangedFileEntry(PARENT_FILE, new ScanCache.FileEntry(1, 1, 1, "app.Parent", false));
+        scanCache.putCachedService(new CachedServiceDto(
+                "app.Service", null, List.of(), null, null, null, ScopeType.SINGLETON.name(),
+                List.of(), List.of(), List.of("app.Service", "app.Parent")
+        ));
+        scanCache.save();
+
+        return cacheFile;
+    }
+}
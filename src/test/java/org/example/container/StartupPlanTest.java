@@ -0,0 +1,100 @@
+package org.example.container;
+
+import org.example.InitApp;
+import org.example.TestCompiler;
+import org.example.configs.Configuration;
+import org.example.directory.Directory;
+import org.example.directory.DirectoryType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupPlanTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checksumChangesWhenClassFileChanges() throws Exception {
+        final Path classes = Files.createDirectory(this.tempDir.resolve("classes"));
+        final List<Directory> directories = List.of(new Directory(classes.toString(), DirectoryType.DIRECTORY));
+
+        TestCompiler.compile(classes, Map.of("app.Service", "package app; public class Service {}"));
+        final long checksum = StartupPlan.checksum(directories, "signature");
+
+        assertEquals(checksum, StartupPlan.checksum(directories, "signature"));
+        assertNotEquals(checksum, StartupPlan.checksum(directories, "other signature"));
+
+        TestCompiler.compile(classes, Map.of("app.Service", "package app; public class Service { int value; }"));
+        assertNotEquals(checksum, StartupPlan.checksum(directories, "signature"));
+    }
+
+    @Test
+    void addedServiceIsFoundAfterPlanIsWritten() throws Exception {
+        final Path classes = Files.createDirectory(this.tempDir.resolve("classes"));
+        final Path planFile = this.tempDir.resolve("startup.plan");
+
+        TestCompiler.compile(classes, Map.of(
+                "app.First", "package app; @org.example.annotations.Service public class First {}"
+        ));
+        assertEquals(1, this.countServices(classes, planFile));
+        assertTrue(Files.isRegularFile(planFile));
+
+        TestCompiler.compile(classes, Map.of(
+                "app.Second", "package app; @org.example.annotations.Service public class Second {}"
+        ));
+        assertEquals(2, this.countServices(classes, planFile));
+    }
+
+    @Test
+    void modifiedServiceIsResolvedAgain() throws Exception {
+        final Path classes = Files.createDirectory(this.tempDir.resolve("classes"));
+        final Path planFile = this.tempDir.resolve("startup.plan");
+
+        TestCompiler.compile(classes, Map.of(
+                "app.Dependency", "package app; @org.example.annotations.Service public class Dependency {}",
+                "app.Consumer", "package app; @org.example.annotations.Service public class Consumer {}"
+        ));
+        assertEquals(2, this.countServices(classes, planFile));
+
+        TestCompiler.compile(classes, Map.of(
+                "app.Consumer", "package app; @org.example.annotations.Service public class Consumer {"
+                        + " public Consumer(Dependency dependency) {} }"
+        ));
+        final ServiceDetails consumer = this.getServiceDetails(classes, planFile, "app.Consumer");
+
+        assertNotNull(consumer);
+        assertEquals(1, consumer.getTargetConstructor().getParameterCount());
+    }
+
+    private int countServices(Path classes, Path planFile) throws Exception {
+        try (URLClassLoader classLoader = TestCompiler.newClassLoader(classes)) {
+            return this.run(classes, planFile, classLoader).getAllServices().size();
+        }
+    }
+
+    private ServiceDetails getServiceDetails(Path classes, Path planFile, String className) throws Exception {
+        try (URLClassLoader classLoader = TestCompiler.newClassLoader(classes)) {
+            return this.run(classes, planFile, classLoader).getServiceDetails(classLoader.loadClass(className));
+        }
+    }
+
+    private DependencyContainerV2 run(Path classes, Path planFile, ClassLoader classLoader) {
+        final Configuration configuration = new Configuration();
+        configuration.scanning().setClassLoader(classLoader);
+        configuration.general().setStartupPlanFile(planFile);
+
+        return InitApp.run(new File[]{classes.toFile()}, configuration);
+    }
+}
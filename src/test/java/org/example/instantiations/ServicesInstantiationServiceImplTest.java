@@ -0,0 +1,79 @@
+package org.example.instantiations;
+
+import org.example.InitApp;
+import org.example.TestCompiler;
+import org.example.configs.Configuration;
+import org.example.exceptions.ServiceInstantiationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServicesInstantiationServiceImplTest {
+
+    @TempDir
+    Path classes;
+
+    @Test
+    void parallelInstantiationCreatesAllServices() throws Exception {
+        TestCompiler.compile(this.classes, Map.of(
+                "app.First", "package app; @org.example.annotations.Service public class First {}",
+                "app.Second", "package app; @org.example.annotations.Service public class Second {"
+                        + " public Second(First first) {} }"
+        ));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (URLClassLoader classLoader = TestCompiler.newClassLoader(this.classes)) {
+            assertEquals(2, InitApp.run(new File[]{this.classes.toFile()}, this.createConfiguration(classLoader, executor))
+                    .getAllServices().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void parallelInstantiationFailureIsThrownAfterRunningServicesFinished() throws Exception {
+        TestCompiler.compile(this.classes, Map.of(
+                "app.Failing", "package app; @org.example.annotations.Service public class Failing {"
+                        + " public Failing() throws Exception { Thread.sleep(100);"
+                        + " throw new IllegalStateException(\"failed\"); } }",
+                "app.Slow", "package app; @org.example.annotations.Service public class Slow {"
+                        + " public static volatile boolean finished;"
+                        + " public Slow() throws Exception { Thread.sleep(500); finished = true; } }",
+                "app.Dependant", "package app; @org.example.annotations.Service public class Dependant {"
+                        + " public static volatile boolean constructed;"
+                        + " public Dependant(Failing failing) { constructed = true; } }"
+        ));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (URLClassLoader classLoader = TestCompiler.newClassLoader(this.classes)) {
+            final Configuration configuration = this.createConfiguration(classLoader, executor);
+
+            assertThrows(ServiceInstantiationException.class,
+                    () -> InitApp.run(new File[]{this.classes.toFile()}, configuration));
+
+            assertTrue(classLoader.loadClass("app.Slow").getField("finished").getBoolean(null));
+            assertFalse(classLoader.loadClass("app.Dependant").getField("constructed").getBoolean(null));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Configuration createConfiguration(ClassLoader classLoader, ExecutorService executor) {
+        final Configuration configuration = new Configuration();
+        configuration.scanning().setClassLoader(classLoader);
+        configuration.getInstantiationConfiguration().setInstantiationExecutor(executor);
+
+        return configuration;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.processor;
+
+import org.example.TestCompiler;
+import org.example.constant.Constants;
+import org.example.util.ServiceIndexUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ServiceIndexProcessorTest {
+
+    private static final String FIRST_SERVICE =
+            "package app; @org.example.annotations.Service public class First {}";
+
+    private static final String SECOND_SERVICE =
+            "package app; @org.example.annotations.Service public class Second {}";
+
+    @TempDir
+    Path classes;
+
+    @Test
+    void indexContainsAllServices() throws Exception {
+        this.compile(Map.of("app.First", FIRST_SERVICE, "app.Second", SECOND_SERVICE));
+
+        assertEquals(Set.of("app.First", "app.Second"), this.readIndex().keySet());
+        assertEquals(Set.of(IndexedElementType.SERVICE), this.readIndex().get("app.First"));
+    }
+
+    @Test
+    void indexContainsServicesWithChainedAlias() throws Exception {
+        this.compile(Map.of(
+                "app.Component", "package app; @org.example.annotations.AliasFor(org.example.annotations.Service.class)"
+                        + " @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)"
+                        + " public @interface Component {}",
+                "app.Repository", "package app; @org.example.annotations.AliasFor(Component.class)"
+                        + " @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)"
+                        + " public @interface Repository {}",
+                "app.Chained", "package app; @Repository public class Chained {}"
+        ));
+
+        assertEquals(Set.of(IndexedElementType.SERVICE), this.readIndex().get("app.Chained"));
+    }
+
+    @Test
+    void incrementalCompilationKeepsClassesThatWereNotRecompiled() throws Exception {
+        this.compile(Map.of("app.First", FIRST_SERVICE, "app.Second", SECOND_SERVICE));
+        this.compile(Map.of("app.First", FIRST_SERVICE));
+
+        assertEquals(Set.of("app.First", "app.Second"), this.readIndex().keySet());
+    }
+
+    @Test
+    void incrementalCompilationDropsClassesThatAreNoLongerServices() throws Exception {
+        this.compile(Map.of("app.First", FIRST_SERVICE, "app.Second", SECOND_SERVICE));
+        this.compile(Map.of("app.First", "package app; public class First {}"));
+
+        assertEquals(Set.of("app.Second"), this.readIndex().keySet());
+    }
+
+    @Test
+    void incrementalCompilationDropsDeletedClasses() throws Exception {
+        this.compile(Map.of("app.First", FIRST_SERVICE, "app.Second", SECOND_SERVICE));
+        Files.delete(this.classes.resolve("app").resolve("Second.class"));
+        this.compile(Map.of("app.First", FIRST_SERVICE));
+
+        assertEquals(Set.of("app.First"), this.readIndex().keySet());
+    }
+
+    private void compile(Map<String, String> sources) {
+        TestCompiler.compile(this.classes, sources, new ServiceIndexProcessor());
+    }
+
+    private Map<String, Set<IndexedElementType>> readIndex() throws Exception {
+        return ServiceIndexUtils.readIndex(Files.readString(
+                this.classes.resolve(Constants.SERVICE_INDEX_LOCATION), StandardCharsets.UTF_8
+        ));
+    }
+}